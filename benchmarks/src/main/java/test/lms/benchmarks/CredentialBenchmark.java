@@ -0,0 +1,69 @@
+package test.lms.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import test.lms.CredentialService;
+
+import java.util.concurrent.TimeUnit;
+
+// Password paths: the SHA-256 hex hash used by the FXML login, signup and admin screens, and BCrypt
+// hashing and verification at a fixed cost, directly and through CredentialService's hashing pool.
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CredentialBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10", "12"})
+    public int cost;
+
+    private String salt;
+    private String storedHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        salt = BCrypt.gensalt(cost);
+        storedHash = BCrypt.hashpw(PASSWORD, salt);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String sha256Hex() {
+        return CredentialService.sha256Hex(PASSWORD);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String bcryptHash() {
+        return BCrypt.hashpw(PASSWORD, salt);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean bcryptVerify() {
+        return BCrypt.checkpw(PASSWORD, storedHash);
+    }
+
+    // Includes the hand-off to the hashing pool and back.
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean credentialServiceVerify() {
+        return CredentialService.verify(PASSWORD, storedHash);
+    }
+}
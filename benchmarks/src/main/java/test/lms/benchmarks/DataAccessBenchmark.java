@@ -0,0 +1,81 @@
+package test.lms.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import test.lms.ConnectionPool;
+import test.lms.LMSApplication.Course;
+import test.lms.LmsDataService;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Connection pool, statement cache, query metrics and row mapping. Runs against StubDriver unless
+// -Dlms.bench.url points at a real LMSApplication database (with -Dlms.bench.user / -Dlms.bench.password).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataAccessBenchmark {
+    private static final String COURSE_SQL = "SELECT id, course_name, description, instructor_id, progress FROM courses WHERE instructor_id = ? ORDER BY id";
+
+    @Param({"1", "100"})
+    public int rows;
+
+    private ConnectionPool pool;
+    private LmsDataService dataService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StubDriver.register(rows);
+        pool = new ConnectionPool(System.getProperty("lms.bench.url", StubDriver.URL),
+                System.getProperty("lms.bench.user", "postgres"), System.getProperty("lms.bench.password", ""));
+        dataService = new LmsDataService(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataService.close();
+        pool.close();
+    }
+
+    @Benchmark
+    public void borrowAndReturn() throws SQLException {
+        pool.getConnection().close();
+    }
+
+    @Benchmark
+    public void cachedPreparedQuery(Blackhole blackhole) throws SQLException {
+        try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement(COURSE_SQL)) {
+            stmt.setInt(1, 2);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                blackhole.consume(rs.getInt("id"));
+                blackhole.consume(rs.getString("course_name"));
+            }
+        }
+    }
+
+    // The full service path: background task, pooled query and mapping into Course objects.
+    @Benchmark
+    public List<Course> myCourses() {
+        return dataService.myCourses("instructor", 2).join();
+    }
+}
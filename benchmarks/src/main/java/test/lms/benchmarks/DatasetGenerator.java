@@ -0,0 +1,442 @@
+package test.lms.benchmarks;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import test.lms.ConnectionPool;
+import test.lms.CredentialService;
+import test.lms.SchemaMigrator;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+
+// Fills the LMSApplication schema with synthetic data for scale testing:
+//
+//   java -cp benchmarks.jar test.lms.benchmarks.DatasetGenerator --scale=100k --seed=42 [--truncate]
+//
+// The same seed, cardinalities and --as-of date always produce the same rows. Course popularity, instructor
+// load and user activity follow Zipf distributions, so a few courses and users dominate as in real use.
+// Every generated user's password is "password". The database comes from DB_URL / DB_USER / DB_PASSWORD.
+public final class DatasetGenerator {
+    private static final Logger LOGGER = Logger.getLogger(DatasetGenerator.class.getName());
+    private static final String PASSWORD = "password";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] SUBJECTS = {"Java", "Databases", "Algorithms", "Networks", "Statistics", "Web Development", "Operating Systems", "Linear Algebra", "Security", "Machine Learning"};
+    private static final String[] LEVELS = {"Introduction to", "Fundamentals of", "Applied", "Advanced", "Topics in"};
+    private static final String[] ASSIGNMENT_KINDS = {"Homework", "Quiz", "Lab", "Project", "Essay"};
+    private static final String[] STUDENT_ACTIONS = {"Login", "Login", "Login", "View Scores", "Submit Assignment", "Enroll"};
+    private static final String[] STAFF_ACTIONS = {"Login", "Login", "Grade Submission", "Add Assignment", "Add Course"};
+
+    // Independent random streams, so changing one table's generation does not shift the others.
+    private static final long STREAM_COURSES = 1;
+    private static final long STREAM_ENROLLMENTS = 2;
+    private static final long STREAM_ASSIGNMENTS = 3;
+    private static final long STREAM_SUBMISSIONS = 4;
+    private static final long STREAM_AUDIT = 5;
+
+    record Config(long seed, int users, int courses, double enrollmentsPerStudent, double assignmentsPerCourse,
+                  double submissionRate, double auditPerUser, LocalDate asOf, boolean truncate) {
+        int admins() {
+            return Math.max(1, users / 10_000);
+        }
+
+        int instructors() {
+            return Math.max(1, users / 50);
+        }
+
+        int students() {
+            return users - admins() - instructors();
+        }
+    }
+
+    private final Config config;
+    private final ConnectionPool pool;
+    // Ids continue after whatever is already in the tables
+    private long userBase;
+    private long courseBase;
+    private long assignmentBase;
+    private long submissionBase;
+    private long auditBase;
+    // Per course: index of its first assignment and how many it has; per assignment: its max score
+    private int[] firstAssignment;
+    private int[] assignmentCount;
+    private short[] maxScores;
+
+    DatasetGenerator(Config config, ConnectionPool pool) {
+        this.config = config;
+        this.pool = pool;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = parse(args);
+        String url = System.getenv().getOrDefault("DB_URL", "jdbc:postgresql://localhost:5432/lms_db");
+        String user = System.getenv().getOrDefault("DB_USER", "postgres");
+        String password = System.getenv().getOrDefault("DB_PASSWORD", "654321");
+        ConnectionPool pool = new ConnectionPool(url, user, password);
+        try {
+            new SchemaMigrator(pool).migrate();
+            new DatasetGenerator(config, pool).generate();
+        } finally {
+            pool.close();
+        }
+    }
+
+    static Config parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        int users = switch (options.getOrDefault("scale", "1k").toLowerCase()) {
+            case "1k" -> 1_000;
+            case "100k" -> 100_000;
+            case "1m" -> 1_000_000;
+            default -> throw new IllegalArgumentException("--scale must be 1k, 100k or 1m");
+        };
+        users = Integer.parseInt(options.getOrDefault("users", String.valueOf(users)));
+        return new Config(
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                users,
+                Integer.parseInt(options.getOrDefault("courses", String.valueOf(Math.max(2, users / 20)))),
+                Double.parseDouble(options.getOrDefault("enrollments-per-student", "4")),
+                Double.parseDouble(options.getOrDefault("assignments-per-course", "8")),
+                Double.parseDouble(options.getOrDefault("submission-rate", "0.6")),
+                Double.parseDouble(options.getOrDefault("audit-per-user", "3")),
+                options.containsKey("as-of") ? LocalDate.parse(options.get("as-of")) : LocalDate.now(),
+                Boolean.parseBoolean(options.getOrDefault("truncate", "false")));
+    }
+
+    void generate() throws SQLException {
+        long start = System.nanoTime();
+        LOGGER.info("Generating " + config);
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+            if (config.truncate()) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("TRUNCATE audit_logs, submissions, assignments, enrollments, courses, users RESTART IDENTITY");
+                }
+                conn.commit();
+            }
+            userBase = maxId(conn, "users");
+            courseBase = maxId(conn, "courses");
+            assignmentBase = maxId(conn, "assignments");
+            submissionBase = maxId(conn, "submissions");
+            auditBase = maxId(conn, "audit_logs");
+            CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+
+            phase(conn, "users", () -> users(copy));
+            phase(conn, "courses", () -> courses(copy));
+            phase(conn, "enrollments", () -> enrollments(copy));
+            phase(conn, "assignments", () -> assignments(copy));
+            phase(conn, "submissions", () -> submissions(copy));
+            phase(conn, "audit_logs", () -> auditLogs(copy));
+
+            conn.setAutoCommit(true);
+            try (Statement stmt = conn.createStatement()) {
+                for (String table : new String[]{"users", "courses", "assignments", "submissions", "audit_logs"}) {
+                    stmt.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), (SELECT GREATEST(MAX(id), 1) FROM " + table + "))");
+                }
+                stmt.execute("ANALYZE users, courses, enrollments, assignments, submissions, audit_logs");
+            }
+        }
+        LOGGER.info(String.format("Dataset generated in %.1f s; every generated user's password is '%s'", (System.nanoTime() - start) / 1e9, PASSWORD));
+    }
+
+    private interface Phase {
+        long run() throws SQLException;
+    }
+
+    private static void phase(Connection conn, String table, Phase phase) throws SQLException {
+        long start = System.nanoTime();
+        long rows = phase.run();
+        conn.commit();
+        LOGGER.info(String.format("%s: %d rows in %.1f s", table, rows, (System.nanoTime() - start) / 1e9));
+    }
+
+    private long users(CopyManager copy) throws SQLException {
+        String hash = CredentialService.hash(PASSWORD); // one shared hash; a million BCrypt rounds would dominate the run
+        try (CopyWriter out = new CopyWriter(copy, "COPY users (id, username, password_hash, email, role) FROM STDIN WITH (FORMAT csv)")) {
+            for (int i = 0; i < config.users(); i++) {
+                long id = userId(i);
+                String role = i < config.admins() ? "admin" : i < config.admins() + config.instructors() ? "instructor" : "student";
+                String username = role + id;
+                out.value(id).text(username).text(hash).text(username + "@example.edu").text(role).endRow();
+            }
+            return out.finish();
+        }
+    }
+
+    private long courses(CopyManager copy) throws SQLException {
+        SplittableRandom random = random(STREAM_COURSES, 0);
+        Zipf instructors = new Zipf(config.instructors(), 1.0);
+        try (CopyWriter out = new CopyWriter(copy, "COPY courses (id, course_name, description, instructor_id, created_at, progress) FROM STDIN WITH (FORMAT csv)")) {
+            for (int c = 0; c < config.courses(); c++) {
+                String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+                String name = LEVELS[random.nextInt(LEVELS.length)] + " " + subject + " " + (100 + c % 900);
+                out.value(courseId(c)).text(name).text("Synthetic course on " + subject.toLowerCase() + ", section " + (c + 1))
+                        .value(userId(config.admins() + instructors.sample(random)))
+                        .text(timestamp(config.asOf().atStartOfDay().minusMinutes(random.nextLong(3L * 365 * 24 * 60))))
+                        .value(round2(random.nextDouble())).endRow();
+            }
+            return out.finish();
+        }
+    }
+
+    private long enrollments(CopyManager copy) throws SQLException {
+        Zipf popularity = new Zipf(config.courses(), 0.9);
+        try (CopyWriter out = new CopyWriter(copy, "COPY enrollments (user_id, course_id, progress) FROM STDIN WITH (FORMAT csv)")) {
+            for (int s = 0; s < config.students(); s++) {
+                SplittableRandom random = random(STREAM_ENROLLMENTS, s);
+                long studentId = userId(config.admins() + config.instructors() + s);
+                for (int course : enrolledCourses(random, popularity)) {
+                    out.value(studentId).value(courseId(course)).value(round2(random.nextDouble())).endRow();
+                }
+            }
+            return out.finish();
+        }
+    }
+
+    private long assignments(CopyManager copy) throws SQLException {
+        firstAssignment = new int[config.courses()];
+        assignmentCount = new int[config.courses()];
+        maxScores = new short[(int) Math.ceil(config.courses() * config.assignmentsPerCourse() * 1.5) + config.courses()];
+        LocalDateTime asOf = config.asOf().atStartOfDay();
+        int next = 0;
+        try (CopyWriter out = new CopyWriter(copy, "COPY assignments (id, course_id, title, description, max_score, deadline) FROM STDIN WITH (FORMAT csv)")) {
+            for (int c = 0; c < config.courses(); c++) {
+                SplittableRandom random = random(STREAM_ASSIGNMENTS, c);
+                int count = Math.max(1, (int) Math.round(config.assignmentsPerCourse() * (0.5 + random.nextDouble())));
+                firstAssignment[c] = next;
+                assignmentCount[c] = count;
+                for (int a = 0; a < count; a++, next++) {
+                    String kind = ASSIGNMENT_KINDS[random.nextInt(ASSIGNMENT_KINDS.length)];
+                    maxScores[next] = (short) (kind.equals("Project") ? 100 : kind.equals("Quiz") ? 20 : 50);
+                    // Mostly past deadlines, with the last few still open
+                    LocalDateTime deadline = asOf.plusDays(60 - (long) (count - a) * 180 / count).plusHours(random.nextInt(24));
+                    out.value(assignmentBase + next + 1).text(kind + " " + (a + 1)).text(kind + " " + (a + 1) + " for course " + courseId(c))
+                            .value(maxScores[next]).text(timestamp(deadline)).endRow();
+                }
+            }
+            return out.finish();
+        }
+    }
+
+    // Re-derives each student's enrollments from the same random stream instead of keeping them in memory.
+    private long submissions(CopyManager copy) throws SQLException {
+        Zipf popularity = new Zipf(config.courses(), 0.9);
+        long next = submissionBase;
+        try (CopyWriter out = new CopyWriter(copy, "COPY submissions (id, assignment_id, student_id, content, file_name, score, feedback) FROM STDIN WITH (FORMAT csv)")) {
+            for (int s = 0; s < config.students(); s++) {
+                int[] courses = enrolledCourses(random(STREAM_ENROLLMENTS, s), popularity);
+                SplittableRandom random = random(STREAM_SUBMISSIONS, s);
+                long studentId = userId(config.admins() + config.instructors() + s);
+                double diligence = 0.5 + random.nextDouble();
+                for (int course : courses) {
+                    for (int a = firstAssignment[course]; a < firstAssignment[course] + assignmentCount[course]; a++) {
+                        if (random.nextDouble() >= config.submissionRate() * diligence) {
+                            continue;
+                        }
+                        out.value(++next).value(assignmentBase + a + 1).value(studentId);
+                        if (random.nextInt(4) == 0) {
+                            out.nul().text("answer-" + studentId + "-" + (a + 1) + ".pdf");
+                        } else {
+                            out.text("Answer from student " + studentId + " to assignment " + (a + 1)).nul();
+                        }
+                        if (random.nextInt(5) == 0) {
+                            out.nul().nul(); // not graded yet
+                        } else {
+                            double percent = Math.max(0, Math.min(100, 72 + random.nextGaussian() * 15));
+                            out.value(round2(percent * maxScores[a] / 100)).text(percent >= 50 ? "Good work" : "Please revisit this topic");
+                        }
+                        out.endRow();
+                    }
+                }
+            }
+            return out.finish();
+        }
+    }
+
+    private long auditLogs(CopyManager copy) throws SQLException {
+        SplittableRandom random = random(STREAM_AUDIT, 0);
+        Zipf activity = new Zipf(config.users(), 1.1);
+        int staff = config.admins() + config.instructors();
+        long events = Math.round(config.users() * config.auditPerUser());
+        LocalDateTime asOf = config.asOf().atStartOfDay();
+        try (CopyWriter out = new CopyWriter(copy, "COPY audit_logs (id, user_id, action, details, timestamp) FROM STDIN WITH (FORMAT csv)")) {
+            for (long e = 0; e < events; e++) {
+                // Most active users first in rank, but spread across roles by a fixed scramble
+                int user = (int) ((activity.sample(random) * 0x9E3779B1L) % config.users());
+                String[] actions = user < staff ? STAFF_ACTIONS : STUDENT_ACTIONS;
+                String action = actions[random.nextInt(actions.length)];
+                // Recent activity is denser than old activity
+                long minutesAgo = (long) (-Math.log(1 - random.nextDouble()) * 60 * 24 * 45) % (365L * 24 * 60);
+                out.value(auditBase + e + 1).value(userId(user)).text(action).text(action + " by user " + userId(user))
+                        .text(timestamp(asOf.minusMinutes(minutesAgo))).endRow();
+            }
+            return out.finish();
+        }
+    }
+
+    private int[] enrolledCourses(SplittableRandom random, Zipf popularity) {
+        int limit = Math.min(config.courses(), 25);
+        int count = Math.min(limit, 1 + (int) (-Math.log(1 - random.nextDouble()) * Math.max(0, config.enrollmentsPerStudent() - 1)));
+        int[] courses = new int[count];
+        int found = 0;
+        while (found < count) {
+            int course = popularity.sample(random);
+            boolean duplicate = false;
+            for (int i = 0; i < found && !duplicate; i++) {
+                duplicate = courses[i] == course;
+            }
+            if (!duplicate) {
+                courses[found++] = course;
+            }
+        }
+        return courses;
+    }
+
+    private long userId(int index) {
+        return userBase + index + 1;
+    }
+
+    private long courseId(int index) {
+        return courseBase + index + 1;
+    }
+
+    private SplittableRandom random(long stream, long index) {
+        return new SplittableRandom(config.seed() * 0x9E3779B97F4A7C15L + stream * 0xBF58476D1CE4E5B9L + index);
+    }
+
+    private static long maxId(Connection conn, String table) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static String timestamp(LocalDateTime time) {
+        return TIMESTAMP.format(time);
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    // Zipf(s) over ranks 0..n-1 by inverse CDF; rank 0 is the most likely.
+    private static final class Zipf {
+        private final double[] cdf;
+
+        private Zipf(int n, double exponent) {
+            cdf = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1 / Math.pow(i + 1, exponent);
+                cdf[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cdf[i] /= sum;
+            }
+        }
+
+        private int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble());
+            return Math.min(cdf.length - 1, index >= 0 ? index : -index - 1);
+        }
+    }
+
+    // Builds CSV rows and streams them to COPY in 1 MB blocks.
+    private static final class CopyWriter implements AutoCloseable {
+        private static final int FLUSH_CHARS = 1 << 20;
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 4096);
+        private boolean rowStarted;
+        private long rows;
+        private boolean finished;
+
+        private CopyWriter(CopyManager copy, String sql) throws SQLException {
+            this.copyIn = copy.copyIn(sql);
+        }
+
+        private CopyWriter value(long value) {
+            separator();
+            buffer.append(value);
+            return this;
+        }
+
+        private CopyWriter value(double value) {
+            separator();
+            buffer.append(value);
+            return this;
+        }
+
+        private CopyWriter text(String value) {
+            separator();
+            buffer.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+            return this;
+        }
+
+        // An unquoted empty field is NULL in CSV format.
+        private CopyWriter nul() {
+            separator();
+            return this;
+        }
+
+        private void endRow() throws SQLException {
+            buffer.append('\n');
+            rowStarted = false;
+            rows++;
+            if (buffer.length() >= FLUSH_CHARS) {
+                flush();
+            }
+        }
+
+        private long finish() throws SQLException {
+            flush();
+            finished = true;
+            copyIn.endCopy();
+            return rows;
+        }
+
+        private void separator() {
+            if (rowStarted) {
+                buffer.append(',');
+            }
+            rowStarted = true;
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!finished) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package test.lms.benchmarks;
+
+import test.lms.ConnectionPool;
+import test.lms.LMSApplication.Course;
+import test.lms.LMSApplication.Submission;
+import test.lms.LMSApplication.User;
+import test.lms.LatencyHistogram;
+import test.lms.LmsDataService;
+import test.lms.QueryMetrics;
+import test.lms.SessionContext;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+// Headless load against a local LMSApplication database, one virtual thread per simulated user:
+//
+//   java -cp benchmarks.jar test.lms.benchmarks.LoadDriver --users=300 --duration=60 --scenario=term-start
+//
+// Each simulated student or instructor logs in, works through a session the way the UI does (SessionContext
+// for its cached lists, LmsDataService for writes, the batched audit log) and logs in again after
+// --session-ops operations. Users are taken from the database, e.g. as made by DatasetGenerator, and all
+// need --password. Scenarios: term-start (mostly enrolling), deadline (mostly submitting) and mixed.
+// Only operations started after --warmup seconds are reported. The database comes from DB_URL / DB_USER /
+// DB_PASSWORD; DB_POOL_MAX_SIZE caps concurrent queries just as it does for the application.
+public final class LoadDriver {
+    private static final Logger LOGGER = Logger.getLogger(LoadDriver.class.getName());
+    private static final String[] OPERATIONS = {"login", "browse", "enroll", "submit", "scores", "grade"};
+
+    record Config(int users, double instructorShare, long durationSeconds, long warmupSeconds, long rampSeconds,
+                  long thinkMillis, int sessionOps, String scenario, String password, long seed) {
+    }
+
+    private record Weights(int browse, int enroll, int submit, int scores) {
+        int total() {
+            return browse + enroll + submit + scores;
+        }
+    }
+
+    private final Config config;
+    private final LmsDataService dataService;
+    private final Weights weights;
+    private final Map<String, OperationStats> stats = new ConcurrentHashMap<>();
+    private volatile long measureFrom;
+    private volatile long stopAt;
+    private int simulatedUsers;
+
+    LoadDriver(Config config, LmsDataService dataService) {
+        this.config = config;
+        this.dataService = dataService;
+        this.weights = switch (config.scenario()) {
+            case "term-start" -> new Weights(30, 60, 5, 5);
+            case "deadline" -> new Weights(15, 5, 60, 20);
+            case "mixed" -> new Weights(40, 20, 20, 20);
+            default -> throw new IllegalArgumentException("--scenario must be term-start, deadline or mixed");
+        };
+        for (String operation : OPERATIONS) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = parse(args);
+        String url = System.getenv().getOrDefault("DB_URL", "jdbc:postgresql://localhost:5432/lms_db");
+        String user = System.getenv().getOrDefault("DB_USER", "postgres");
+        String password = System.getenv().getOrDefault("DB_PASSWORD", "654321");
+        ConnectionPool pool = new ConnectionPool(url, user, password);
+        LmsDataService dataService = new LmsDataService(pool);
+        try {
+            LoadDriver driver = new LoadDriver(config, dataService);
+            driver.run(pool);
+            driver.report(System.out, pool);
+        } finally {
+            dataService.close();
+            pool.close();
+        }
+    }
+
+    static Config parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        return new Config(
+                Integer.parseInt(options.getOrDefault("users", "200")),
+                Double.parseDouble(options.getOrDefault("instructor-share", "0.05")),
+                Long.parseLong(options.getOrDefault("duration", "60")),
+                Long.parseLong(options.getOrDefault("warmup", "10")),
+                Long.parseLong(options.getOrDefault("ramp", "5")),
+                Long.parseLong(options.getOrDefault("think-ms", "500")),
+                Integer.parseInt(options.getOrDefault("session-ops", "20")),
+                options.getOrDefault("scenario", "mixed"),
+                options.getOrDefault("password", "password"),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+    }
+
+    void run(ConnectionPool pool) throws SQLException, InterruptedException {
+        int instructors = (int) Math.round(config.users() * config.instructorShare());
+        List<String> instructorNames = usernames(pool, "instructor", instructors);
+        List<String> studentNames = usernames(pool, "student", config.users() - instructorNames.size());
+        if (studentNames.isEmpty() && instructorNames.isEmpty()) {
+            throw new IllegalStateException("No users to log in as; run DatasetGenerator first");
+        }
+        LOGGER.info(String.format("Starting %d students and %d instructors, scenario %s, %d s warm-up + %d s measured",
+                studentNames.size(), instructorNames.size(), config.scenario(), config.warmupSeconds(), config.durationSeconds()));
+
+        long start = System.nanoTime();
+        measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+        stopAt = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        List<String> everyone = new ArrayList<>(studentNames);
+        everyone.addAll(instructorNames);
+        simulatedUsers = everyone.size();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < everyone.size(); i++) {
+                String username = everyone.get(i);
+                boolean instructor = i >= studentNames.size();
+                long startDelayNanos = TimeUnit.SECONDS.toNanos(config.rampSeconds()) * i / everyone.size();
+                SplittableRandom random = new SplittableRandom(config.seed() * 0x9E3779B97F4A7C15L + i);
+                users.submit(() -> simulate(username, instructor, start + startDelayNanos, random));
+            }
+        } // waits for every simulated user to reach stopAt
+    }
+
+    private void simulate(String username, boolean instructor, long startAt, SplittableRandom random) {
+        try {
+            sleepUntil(startAt);
+            while (System.nanoTime() < stopAt) {
+                User user = timed("login", () -> dataService.authenticate(username, config.password()).thenApply(found -> {
+                    if (found == null) {
+                        throw new IllegalStateException("Invalid credentials for " + username);
+                    }
+                    return found;
+                }));
+                if (user == null) {
+                    pause(random); // already counted as an error or a rejection
+                    continue;
+                }
+                SessionContext session = new SessionContext(dataService, user);
+                session.preload();
+                dataService.logAudit(user.getId(), "Login", "User " + username + " logged in");
+                for (int op = 0; op < config.sessionOps() && System.nanoTime() < stopAt; op++) {
+                    pause(random);
+                    if (instructor) {
+                        grade(session, random);
+                    } else {
+                        studentStep(session, random);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void studentStep(SessionContext session, SplittableRandom random) {
+        int pick = random.nextInt(weights.total());
+        if (pick < weights.browse()) {
+            timed("browse", session::courses);
+        } else if ((pick -= weights.browse()) < weights.enroll()) {
+            LmsDataService.EnrollmentOptions options = timed("browse", session::enrollmentOptions);
+            if (options == null || options.available().isEmpty()) {
+                return;
+            }
+            Course course = options.available().get(popularIndex(random, options.available().size()));
+            int userId = session.profile().getId();
+            if (timedWrite("enroll", () -> dataService.enroll(userId, course.getId()))) {
+                session.enrolled();
+                dataService.logAudit(userId, "Enroll Course", "User " + session.profile().getUsername() + " enrolled in course ID " + course.getId());
+            }
+        } else if ((pick -= weights.enroll()) < weights.submit()) {
+            List<LmsDataService.OpenAssignment> open = timed("browse", session::openAssignments);
+            if (open == null || open.isEmpty()) {
+                return;
+            }
+            LmsDataService.OpenAssignment assignment = open.get(random.nextInt(open.size()));
+            int userId = session.profile().getId();
+            Submission submission = new Submission(0, assignment.assignmentId(), userId, "Load test answer " + random.nextLong(), null, null, null);
+            if (timedWrite("submit", () -> dataService.submitAssignment(submission))) {
+                session.submitted();
+                dataService.logAudit(userId, "Submit Assignment", "User " + session.profile().getUsername() + " submitted assignment ID " + assignment.assignmentId());
+            }
+        } else {
+            timed("scores", session::submissions);
+        }
+    }
+
+    private void grade(SessionContext session, SplittableRandom random) {
+        List<Course> courses = timed("browse", session::courses);
+        if (courses == null || courses.isEmpty()) {
+            return;
+        }
+        int courseId = courses.get(random.nextInt(courses.size())).getId();
+        List<Submission> submissions = timed("browse", () -> dataService.courseSubmissions(courseId));
+        if (submissions == null) {
+            return;
+        }
+        List<Submission> ungraded = submissions.stream().filter(s -> s.getScore() == null).toList();
+        if (ungraded.isEmpty()) {
+            return;
+        }
+        Submission submission = ungraded.get(random.nextInt(ungraded.size()));
+        double score = Math.round(50 + random.nextDouble() * 50);
+        if (timedWrite("grade", () -> dataService.gradeSubmission(submission.getId(), score, "Graded under load"))) {
+            dataService.logAudit(session.profile().getId(), "Grade Submission", "Graded submission ID " + submission.getId() + " with score " + score);
+        }
+    }
+
+    private boolean timedWrite(String operation, Supplier<CompletableFuture<Void>> call) {
+        long start = System.nanoTime();
+        try {
+            call.get().get();
+            stats.get(operation).succeeded(start, System.nanoTime());
+            return true;
+        } catch (ExecutionException | CompletionException e) {
+            stats.get(operation).failed(start, System.nanoTime(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    // Returns null when the call failed; the failure is counted.
+    private <T> T timed(String operation, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        try {
+            T value = call.get().get();
+            stats.get(operation).succeeded(start, System.nanoTime());
+            return value;
+        } catch (ExecutionException | CompletionException e) {
+            stats.get(operation).failed(start, System.nanoTime(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    // Four in five picks go to the first fifth of the list, which the catalog orders oldest course first.
+    private static int popularIndex(SplittableRandom random, int size) {
+        int head = Math.max(1, size / 5);
+        return random.nextInt(5) < 4 ? random.nextInt(head) : random.nextInt(size);
+    }
+
+    private void pause(SplittableRandom random) throws InterruptedException {
+        if (config.thinkMillis() > 0) {
+            long millis = (long) (-Math.log(1 - random.nextDouble()) * config.thinkMillis());
+            sleepUntil(Math.min(stopAt, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis)));
+        }
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    private static List<String> usernames(ConnectionPool pool, String role, int limit) throws SQLException {
+        List<String> names = new ArrayList<>();
+        if (limit <= 0) {
+            return names;
+        }
+        try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement("SELECT username FROM users WHERE role = ? ORDER BY id LIMIT ?")) {
+            stmt.setString(1, role);
+            stmt.setInt(2, limit);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                names.add(rs.getString(1));
+            }
+        }
+        return names;
+    }
+
+    void report(PrintStream out, ConnectionPool pool) {
+        double seconds = config.durationSeconds();
+        out.printf("%nScenario %s, %d users, %d s measured%n", config.scenario(), simulatedUsers, config.durationSeconds());
+        out.printf("%-8s %9s %9s %8s %8s %8s %9s %9s %9s %9s%n", "op", "ok", "ops/s", "errors", "constr.", "rejected", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (String operation : OPERATIONS) {
+            OperationStats op = stats.get(operation);
+            double[] p = op.latency.percentilesMillis(0.50, 0.95, 0.99);
+            out.printf("%-8s %9d %9.1f %8d %8d %8d %9.2f %9.2f %9.2f %9.2f%n", operation, op.latency.count(), op.latency.count() / seconds,
+                    op.errors.sum(), op.constraintViolations.sum(), op.rejected.sum(), p[0], p[1], p[2], op.latency.maxMillis());
+        }
+        out.println("Connection pool: " + pool.getStats());
+        QueryMetrics.dump();
+    }
+
+    // Latency covers successful calls only; failures are counted by kind.
+    private final class OperationStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder constraintViolations = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        private void succeeded(long start, long end) {
+            if (start >= measureFrom && end <= stopAt) {
+                latency.record(end - start);
+            }
+        }
+
+        private void failed(long start, long end, Throwable cause) {
+            if (start < measureFrom || end > stopAt) {
+                return;
+            }
+            if (cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("23")) {
+                constraintViolations.increment();
+            } else if (cause instanceof RejectedExecutionException) {
+                rejected.increment(); // credential hashing queue full
+            } else {
+                errors.increment();
+            }
+        }
+    }
+}
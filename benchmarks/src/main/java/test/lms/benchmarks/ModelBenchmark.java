@@ -0,0 +1,58 @@
+package test.lms.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import test.lms.LMSApplication.Course;
+import test.lms.LMSApplication.Submission;
+import test.lms.LMSApplication.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of building the model objects a result page or table is made of.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelBenchmark {
+    @Param({"10", "1000"})
+    public int count;
+
+    @Benchmark
+    public List<User> users() {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User(i, "user" + i, "user" + i + "@example.com", "student"));
+        }
+        return users;
+    }
+
+    @Benchmark
+    public List<Course> courses() {
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            courses.add(new Course(i, "Course " + i, "Description of course " + i, 2, i % 100 / 100.0));
+        }
+        return courses;
+    }
+
+    @Benchmark
+    public List<Submission> submissions() {
+        List<Submission> submissions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            submissions.add(new Submission(i, i % 50, i % 200, "Answer " + i, null, null, null, "student" + i % 200, "Assignment " + i % 50));
+        }
+        return submissions;
+    }
+}
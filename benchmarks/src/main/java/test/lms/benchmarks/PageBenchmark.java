@@ -0,0 +1,89 @@
+package test.lms.benchmarks;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.scene.Scene;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.VBox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import test.lms.ItemCell;
+import test.lms.LMSApplication.Course;
+import test.lms.Theme;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The main screen's item list: scrolling a screenful of recycled cells across every item, and a theme
+// switch restyling them, at varying item counts. The nodes are never shown, so this runs off the FX
+// thread; the toolkit still has to start, which needs a display (or Monocle:
+// -Dglass.platform=Monocle -Dmonocle.platform=Headless).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PageBenchmark {
+    // About what the 1000x700 main screen shows at once
+    private static final int VISIBLE_CELLS = 12;
+
+    @Param({"5", "50", "500", "5000"})
+    public int items;
+
+    private ItemCell[] cells;
+    private Scene themedScene;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch (IllegalStateException alreadyStarted) {
+            // another benchmark in this JVM started it
+        }
+        List<Object> courses = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            courses.add(new Course(i, "Course " + i, "Description of course " + i, 2, i % 100 / 100.0));
+        }
+        ListView<Object> list = new ListView<>(FXCollections.observableList(courses));
+        cells = new ItemCell[VISIBLE_CELLS];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new ItemCell("student", courseId -> {
+            });
+            cells[i].updateListView(list);
+            cells[i].updateIndex(i < items ? i : -1);
+        }
+        themedScene = new Scene(new VBox(10, cells));
+        Theme.install(themedScene);
+        themedScene.getRoot().applyCss();
+    }
+
+    // Rebinding the same cells to every row in turn, as the ListView does while scrolling top to bottom.
+    @Benchmark
+    public ItemCell[] scrollThrough() {
+        for (int i = 0; i < items; i++) {
+            cells[i % cells.length].updateIndex(i);
+        }
+        return cells;
+    }
+
+    // One flip and the CSS pass it triggers; successive calls alternate between light and dark.
+    @Benchmark
+    public Scene toggleTheme() {
+        Theme.toggle();
+        themedScene.getRoot().applyCss();
+        return themedScene;
+    }
+}
@@ -0,0 +1,209 @@
+package test.lms.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+// In-memory JDBC driver for "jdbc:lms-stub:" URLs. Every query returns STUB_ROWS rows whose columns read
+// as the row number, "value <row>", 0.5 or a fixed timestamp, so the pool, statement cache, metrics
+// wrapper and result mapping can be measured without a database.
+public final class StubDriver implements Driver {
+    public static final String URL = "jdbc:lms-stub:";
+    private static final Timestamp DEADLINE = Timestamp.valueOf("2030-01-01 00:00:00");
+    private static volatile int rows = 20;
+
+    static {
+        try {
+            DriverManager.registerDriver(new StubDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Loads the class, which registers the driver, and sets how many rows each query returns.
+    public static void register(int rowsPerQuery) {
+        rows = rowsPerQuery;
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) {
+        return acceptsURL(url) ? proxy(Connection.class, new ConnectionHandler()) : null;
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return Logger.getLogger(StubDriver.class.getName());
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StubDriver.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        return null;
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private boolean autoCommit = true;
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "prepareStatement":
+                case "prepareCall":
+                    return proxy(PreparedStatement.class, new StatementHandler((Connection) proxy));
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler((Connection) proxy));
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "isValid":
+                    return !closed;
+                case "isClosed":
+                    return closed;
+                case "close":
+                    closed = true;
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "StubConnection";
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Connection connection;
+
+        private StatementHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "executeQuery":
+                    return proxy(ResultSet.class, new ResultSetHandler(rows));
+                case "execute":
+                    return true;
+                case "getResultSet":
+                    return proxy(ResultSet.class, new ResultSetHandler(rows));
+                case "executeUpdate":
+                    return 1;
+                case "executeLargeUpdate":
+                    return 1L;
+                case "executeBatch":
+                    return new int[0];
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final int count;
+        private int row;
+
+        private ResultSetHandler(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "next":
+                    return ++row <= count;
+                case "getInt":
+                    return row;
+                case "getLong":
+                    return (long) row;
+                case "getString":
+                    return "value " + row;
+                case "getDouble":
+                    return 0.5;
+                case "getBoolean":
+                    return true;
+                case "getTimestamp":
+                    return DEADLINE;
+                case "getObject":
+                    return row;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+    }
+}
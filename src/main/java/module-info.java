@@ -2,6 +2,7 @@ module test.lms {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.sql;
+    requires org.postgresql.jdbc; // COPY API for bulk imports
 
     // Add Spring Security dependencies
     requires spring.security.core;
@@ -7,7 +7,6 @@ import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.chart.*;
 import javafx.scene.control.*;
@@ -23,16 +22,12 @@ import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import javafx.concurrent.Task;
+import java.util.concurrent.Future;
 
-public class AdminDashboardController {
-    private static final String DB_URL = "jdbc:postgresql://localhost:5432/lms";
-    private static final String DB_USER = "postgres";
-    private static final String DB_PASSWORD = "654321";
+public class AdminDashboardController implements FxmlPreloader.Activatable {
     private static final int DEFAULT_COURSE_COUNT = 20;
-    private static final int ITEMS_PER_PAGE = 5;
+    private static final int USER_TABLE_MAX_ROWS = Math.max(1, Settings.intSetting("ADMIN_USER_TABLE_MAX_ROWS", 5000));
     private static final String EMAIL_REGEX = "^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$";
 
     private User currentUser;
@@ -40,14 +35,23 @@ public class AdminDashboardController {
     private boolean showingCourses = true;
     private String selectedItem;
     private Timer timer;
+    private final BackgroundExecutor.TaskGroup tasks = BackgroundExecutor.newGroup("admin-dashboard");
+    private DebouncedSearch<List<String>> itemSearch;
+    // Fills the user table with matches from every user, not only the capped rows loaded into it
+    private DebouncedSearch<List<User>> userSearch;
+    // Keyed by course id: titles are not unique
+    private final NGramIndex<String> courseIndex = new NGramIndex<>();
+    private final NGramIndex<User> userIndex = new NGramIndex<>();
+    private volatile boolean searchIndexReady;
+    private Future<?> userTableLoad;
 
     @FXML private Label studentsCountLabel, coursesCountLabel, instructorsCountLabel;
     @FXML private ProgressBar overallProgressBar, detailsProgressBar;
     @FXML private ProgressIndicator overallProgressIndicator;
     @FXML private PieChart courseCompletionChart;
     @FXML private LineChart<String, Number> progressTrendChart;
-    @FXML private Pagination pagination;
-    @FXML private VBox itemList, mainContent;
+    @FXML private ListView<String> itemList;
+    @FXML private VBox mainContent;
     @FXML private TextField searchField;
     @FXML private Label listTitle, detailsTitle, detailsName, detailsDescription, statusLabel, realTimeClock;
     @FXML private Button addButton, updateProgressButton, refreshButton, addUserButton, editUserButton, deleteUserButton, deleteCourseButton;
@@ -57,9 +61,23 @@ public class AdminDashboardController {
     @FXML private TextArea reportTextArea, notificationArea;
     @FXML private Button generateReportButton;
 
+    // May run on a preloading thread before anyone has logged in, so it only wires up nodes; see activate().
     @FXML
     private void initialize() {
         currentUser = new User("admin", "admin@lms.com", "administrator");
+        setupUI();
+        setupSearch();
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
+            itemSearch.submit(newVal);
+            if (!showingCourses) {
+                searchUsers(newVal);
+            }
+        });
+    }
+
+    // FX thread, once the dashboard is actually shown.
+    @Override
+    public void activate() {
         statusLabel.setText("Logged in as: " + currentUser.getName() + " | Last refreshed: " + new SimpleDateFormat("hh:mm a zzz").format(new java.util.Date()));
 
         // Set tooltips
@@ -72,26 +90,81 @@ public class AdminDashboardController {
         refreshButton.setTooltip(new Tooltip("Refresh the dashboard data"));
         generateReportButton.setTooltip(new Tooltip("Generate a system report"));
 
-        setupUI();
+        startAnimations();
+        buildSearchIndex();
         startRealTimeClock();
         loadUserTable();
         updateSummaryCards();
         updateCharts();
         showCourses();
         loadRecentActivity();
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> updateItemList(newVal));
+    }
+
+    private void setupSearch() {
+        itemSearch = new DebouncedSearch<>(Duration.millis(250), tasks,
+                term -> (showingCourses ? "courses:" : "users:") + term,
+                term -> {
+                    boolean courses = showingCourses;
+                    return () -> queryItems(courses, term);
+                },
+                this::showItems,
+                e -> notificationArea.setText("Error loading items: " + e.getMessage()));
+        userSearch = new DebouncedSearch<>(Duration.millis(250), tasks,
+                term -> term,
+                term -> () -> findUsers(term),
+                this::showUserMatches,
+                e -> notificationArea.setText("Error searching users: " + e.getMessage()));
+    }
+
+    // Loads course titles and user names once; add/edit/delete keep the index current afterwards.
+    private void buildSearchIndex() {
+        Task<Void> task = new Task<Void>() {
+            @Override
+            protected Void call() throws Exception {
+                try (Connection conn = DatabaseConnection.getConnection();
+                     Statement stmt = conn.createStatement()) {
+                    try (ResultSet rs = stmt.executeQuery("SELECT id, title FROM courses")) {
+                        while (rs.next()) {
+                            String title = rs.getString("title");
+                            courseIndex.put(rs.getString("id"), title, title);
+                        }
+                    }
+                    try (ResultSet rs = stmt.executeQuery("SELECT first_name, email, user_type FROM users")) {
+                        while (rs.next()) {
+                            User user = new User(rs.getString("first_name"), rs.getString("email"), rs.getString("user_type"));
+                            userIndex.put(user.getEmail(), user.getName(), user);
+                        }
+                    }
+                    searchIndexReady = true;
+                } catch (SQLException e) {
+                    // Search keeps falling back to the database
+                    Platform.runLater(() -> notificationArea.setText("Search index unavailable: " + e.getMessage()));
+                }
+                return null;
+            }
+        };
+        tasks.submit(task);
     }
 
     private void setupUI() {
         addButton.setEffect(new DropShadow(10, Color.web("#3299a8")));
         deleteCourseButton.setEffect(new DropShadow(10, Color.web("#e74c3c")));
-        FadeTransition fade = new FadeTransition(Duration.millis(1500), refreshButton);
-        fade.setFromValue(1.0); fade.setToValue(0.4); fade.setCycleCount(FadeTransition.INDEFINITE);
-        fade.setAutoReverse(true); fade.play();
 
         userNameCol.setCellValueFactory(cellData -> cellData.getValue().nameProperty());
         userEmailCol.setCellValueFactory(cellData -> cellData.getValue().emailProperty());
         userRoleCol.setCellValueFactory(cellData -> cellData.getValue().roleProperty());
+        // The list recycles its cells, so selection replaces the per-label click handlers
+        itemList.getSelectionModel().selectedItemProperty().addListener((obs, oldItem, item) -> {
+            if (item != null) {
+                selectedItem = item;
+                detailsName.setText(selectedItem);
+                fetchDetails(selectedItem);
+            }
+        });
+    }
+
+    private void startAnimations() {
+        AnimationGovernor.pulse(refreshButton, Duration.millis(1500), 1.0, 0.4);
 
         ScaleTransition scale = new ScaleTransition(Duration.millis(500), mainContent);
         scale.setFromX(0.8); scale.setFromY(0.8); scale.setToX(1.0); scale.setToY(1.0);
@@ -110,27 +183,89 @@ public class AdminDashboardController {
                 });
             }
         }, 0, 1000);
+        // Picks up other sessions' changes to the summary cards without a manual refresh
+        timer.scheduleAtFixedRate(new TimerTask() {
+            @Override
+            public void run() {
+                Platform.runLater(() -> updateSummaryCards());
+            }
+        }, 30_000, 30_000);
     }
 
     private void loadUserTable() {
-        Task<Void> task = new Task<Void>() {
-            @Override
-            protected Void call() throws Exception {
-                ObservableList<User> users = FXCollections.observableArrayList();
-                try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-                     Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT first_name, email, user_type FROM users")) {
-                    while (rs.next()) {
-                        users.add(new User(rs.getString("first_name"), rs.getString("email"), rs.getString("user_type")));
-                    }
-                } catch (SQLException e) {
-                    Platform.runLater(() -> notificationArea.setText("Error loading users: " + e.getMessage()));
+        if (userTableLoad != null) {
+            userTableLoad.cancel(true);
+        }
+        // Rows are appended as the cursor delivers them, so the first users show up immediately. The table keeps
+        // every row it is given, so it is capped; searchUsers reaches the users beyond the cap.
+        ObservableList<User> users = FXCollections.observableArrayList();
+        userTable.setItems(users);
+        userTableLoad = tasks.submit(() -> {
+            try {
+                StreamingQuery.Streamed streamed = StreamingQuery.streamToFx("SELECT first_name, email, user_type FROM users",
+                        USER_TABLE_MAX_ROWS,
+                        rs -> new User(rs.getString("first_name"), rs.getString("email"), rs.getString("user_type")),
+                        batch -> {
+                            if (userTable.getItems() == users) {
+                                users.addAll(batch);
+                            }
+                        });
+                if (streamed.truncated()) {
+                    Platform.runLater(() -> notificationArea.setText("Showing the first " + USER_TABLE_MAX_ROWS + " users; search by name to reach the others"));
                 }
-                Platform.runLater(() -> userTable.setItems(users));
-                return null;
+            } catch (SQLException e) {
+                Platform.runLater(() -> notificationArea.setText("Error loading users: " + e.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        };
-        new Thread(task).start();
+        });
+    }
+
+    // A blank term goes back to the streamed table; anything else shows the matching users, so each user can
+    // be selected for edit or delete however many there are.
+    private void searchUsers(String term) {
+        if (term == null || term.isBlank()) {
+            userSearch.cancel();
+            loadUserTable();
+        } else {
+            userSearch.submit(term);
+        }
+    }
+
+    // After a user is added, edited or deleted: re-runs the current view rather than a cached result.
+    private void refreshUserTable() {
+        userSearch.invalidate();
+        if (searchField.getText() == null || searchField.getText().isBlank()) {
+            loadUserTable();
+        } else {
+            userSearch.submitNow(searchField.getText());
+        }
+    }
+
+    // Runs on a background thread via userSearch
+    private List<User> findUsers(String term) throws SQLException {
+        if (searchIndexReady) {
+            return userIndex.search(term);
+        }
+        List<User> users = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT first_name, email, user_type FROM users WHERE first_name LIKE ? LIMIT ?")) {
+            stmt.setString(1, "%" + term + "%");
+            stmt.setInt(2, USER_TABLE_MAX_ROWS);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                users.add(new User(rs.getString("first_name"), rs.getString("email"), rs.getString("user_type")));
+            }
+        }
+        return users;
+    }
+
+    private void showUserMatches(List<User> users) {
+        if (userTableLoad != null) {
+            userTableLoad.cancel(true);
+            userTableLoad = null;
+        }
+        userTable.setItems(FXCollections.observableArrayList(users));
     }
 
     private void updateCharts() {
@@ -139,7 +274,7 @@ public class AdminDashboardController {
             protected Void call() throws Exception {
                 // Update PieChart
                 ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
-                try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+                try (Connection conn = DatabaseConnection.getConnection();
                      Statement stmt = conn.createStatement();
                      ResultSet rs = stmt.executeQuery("SELECT COUNT(*), status FROM courses GROUP BY status")) {
                     while (rs.next()) {
@@ -153,7 +288,7 @@ public class AdminDashboardController {
                 // Update LineChart
                 XYChart.Series<String, Number> series = new XYChart.Series<>();
                 series.setName("Progress Trend");
-                try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+                try (Connection conn = DatabaseConnection.getConnection();
                      Statement stmt = conn.createStatement();
                      ResultSet rs = stmt.executeQuery("SELECT progress, updated_at FROM courses ORDER BY updated_at LIMIT 5")) {
                     while (rs.next()) {
@@ -169,7 +304,7 @@ public class AdminDashboardController {
                 return null;
             }
         };
-        new Thread(task).start();
+        tasks.submit(task);
     }
 
     @FXML
@@ -177,8 +312,7 @@ public class AdminDashboardController {
         showingCourses = true;
         listTitle.setText("Courses");
         userTable.setVisible(false);
-        itemList.setVisible(true);
-        updateItemList("");
+        itemSearch.submitNow("");
     }
 
     @FXML
@@ -186,8 +320,7 @@ public class AdminDashboardController {
         showingCourses = false;
         listTitle.setText("Users");
         userTable.setVisible(true);
-        itemList.setVisible(false);
-        loadUserTable();
+        searchUsers(searchField.getText());
     }
 
     @FXML
@@ -207,13 +340,21 @@ public class AdminDashboardController {
                     Task<Void> addCourseTask = new Task<Void>() {
                         @Override
                         protected Void call() throws Exception {
-                            try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+                            try (Connection conn = DatabaseConnection.getConnection();
                                  PreparedStatement stmt = conn.prepareStatement(
-                                         "INSERT INTO courses (title, description, status) VALUES (?, ?, 'draft')")) {
+                                         "INSERT INTO courses (title, description, status) VALUES (?, ?, 'draft') RETURNING id")) {
                                 stmt.setString(1, title);
                                 stmt.setString(2, description);
-                                stmt.executeUpdate();
+                                String id;
+                                try (ResultSet rs = stmt.executeQuery()) {
+                                    rs.next();
+                                    id = rs.getString(1);
+                                }
                                 Platform.runLater(() -> {
+                                    courseIndex.put(id, title, title);
+                                    DashboardSummary.getInstance().invalidate();
+                                    updateSummaryCards();
+                                    itemSearch.invalidate();
                                     showCourses();
                                     showAlert(Alert.AlertType.INFORMATION, "Success", "Course added");
                                 });
@@ -223,7 +364,7 @@ public class AdminDashboardController {
                             return null;
                         }
                     };
-                    new Thread(addCourseTask).start();
+                    tasks.submit(addCourseTask);
                 }
             }
         });
@@ -235,18 +376,14 @@ public class AdminDashboardController {
             @Override
             protected Void call() throws Exception {
                 StringBuilder report = new StringBuilder("LMS Report\n");
-                try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-                     Statement stmt = conn.createStatement()) {
-                    ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users WHERE user_type = 'student'");
-                    if (rs.next()) report.append("Total Students: ").append(rs.getInt(1)).append("\n");
-                    rs = stmt.executeQuery("SELECT COUNT(*) FROM courses");
-                    if (rs.next()) report.append("Total Courses: ").append(rs.getInt(1)).append("\n");
-                }
+                DashboardSummary.Snapshot summary = DashboardSummary.getInstance().get();
+                report.append("Total Students: ").append(summary.students()).append("\n");
+                report.append("Total Courses: ").append(summary.courses()).append("\n");
                 Platform.runLater(() -> reportTextArea.setText(report.toString()));
                 return null;
             }
         };
-        new Thread(task).start();
+        tasks.submit(task);
     }
 
     @FXML
@@ -298,7 +435,7 @@ public class AdminDashboardController {
                 Task<Void> editUserTask = new Task<Void>() {
                     @Override
                     protected Void call() throws Exception {
-                        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+                        try (Connection conn = DatabaseConnection.getConnection();
                              PreparedStatement stmt = conn.prepareStatement(
                                      "UPDATE users SET first_name = ?, email = ?, user_type = ? WHERE email = ?")) {
                             stmt.setString(1, name);
@@ -307,7 +444,12 @@ public class AdminDashboardController {
                             stmt.setString(4, selectedUser.getEmail());
                             stmt.executeUpdate();
                             Platform.runLater(() -> {
-                                loadUserTable();
+                                userIndex.remove(selectedUser.getEmail());
+                                userIndex.put(email, name, new User(name, email, role));
+                                DashboardSummary.getInstance().invalidate();
+                                updateSummaryCards();
+                                itemSearch.invalidate();
+                                refreshUserTable();
                                 showAlert(Alert.AlertType.INFORMATION, "Success", "User updated");
                             });
                         } catch (SQLException e) {
@@ -316,7 +458,7 @@ public class AdminDashboardController {
                         return null;
                     }
                 };
-                new Thread(editUserTask).start();
+                tasks.submit(editUserTask);
             }
         });
     }
@@ -335,12 +477,16 @@ public class AdminDashboardController {
                 Task<Void> deleteUserTask = new Task<Void>() {
                     @Override
                     protected Void call() throws Exception {
-                        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+                        try (Connection conn = DatabaseConnection.getConnection();
                              PreparedStatement stmt = conn.prepareStatement("DELETE FROM users WHERE email = ?")) {
                             stmt.setString(1, selectedUser.getEmail());
                             stmt.executeUpdate();
                             Platform.runLater(() -> {
-                                loadUserTable();
+                                userIndex.remove(selectedUser.getEmail());
+                                DashboardSummary.getInstance().invalidate();
+                                updateSummaryCards();
+                                itemSearch.invalidate();
+                                refreshUserTable();
                                 loadRecentActivity();
                                 showAlert(Alert.AlertType.INFORMATION, "Success", "User deleted");
                             });
@@ -350,7 +496,7 @@ public class AdminDashboardController {
                         return null;
                     }
                 };
-                new Thread(deleteUserTask).start();
+                tasks.submit(deleteUserTask);
             }
         });
     }
@@ -381,12 +527,13 @@ public class AdminDashboardController {
                 Task<Void> updateProgressTask = new Task<Void>() {
                     @Override
                     protected Void call() throws Exception {
-                        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+                        try (Connection conn = DatabaseConnection.getConnection();
                              PreparedStatement stmt = conn.prepareStatement(
                                      "UPDATE courses SET progress = ?, updated_at = CURRENT_TIMESTAMP WHERE title = ?")) {
                             stmt.setDouble(1, progress);
                             stmt.setString(2, selectedItem != null ? selectedItem : currentItems.get(0));
                             stmt.executeUpdate();
+                            DashboardSummary.getInstance().invalidate();
                             Platform.runLater(() -> {
                                 updateCharts();
                                 updateSummaryCards();
@@ -399,13 +546,16 @@ public class AdminDashboardController {
                         return null;
                     }
                 };
-                new Thread(updateProgressTask).start();
+                tasks.submit(updateProgressTask);
             }
         });
     }
 
     @FXML
     private void refreshList() {
+        itemSearch.invalidate();
+        userSearch.invalidate();
+        DashboardSummary.getInstance().invalidate();
         if (showingCourses) {
             showCourses();
         } else {
@@ -427,14 +577,23 @@ public class AdminDashboardController {
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION, "Are you sure you want to delete " + (selectedItem != null ? selectedItem : currentItems.get(0)) + "?");
         confirm.showAndWait().ifPresent(result -> {
             if (result == ButtonType.OK) {
+                String title = selectedItem != null ? selectedItem : currentItems.get(0);
                 Task<Void> deleteCourseTask = new Task<Void>() {
                     @Override
                     protected Void call() throws Exception {
-                        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-                             PreparedStatement stmt = conn.prepareStatement("DELETE FROM courses WHERE title = ?")) {
-                            stmt.setString(1, selectedItem != null ? selectedItem : currentItems.get(0));
-                            stmt.executeUpdate();
+                        try (Connection conn = DatabaseConnection.getConnection();
+                             PreparedStatement stmt = conn.prepareStatement("DELETE FROM courses WHERE title = ? RETURNING id")) {
+                            stmt.setString(1, title);
+                            List<String> deleted = new ArrayList<>();
+                            try (ResultSet rs = stmt.executeQuery()) {
+                                while (rs.next()) {
+                                    deleted.add(rs.getString(1));
+                                }
+                            }
                             Platform.runLater(() -> {
+                                deleted.forEach(courseIndex::remove);
+                                DashboardSummary.getInstance().invalidate();
+                                itemSearch.invalidate();
                                 showCourses();
                                 updateCharts();
                                 updateSummaryCards();
@@ -447,35 +606,25 @@ public class AdminDashboardController {
                         return null;
                     }
                 };
-                new Thread(deleteCourseTask).start();
+                tasks.submit(deleteCourseTask);
             }
         });
     }
 
-    private VBox createPage(int pageIndex) {
-        VBox pageBox = new VBox(10);
-        pageBox.setPadding(new Insets(10));
-        int start = pageIndex * ITEMS_PER_PAGE;
-        int end = Math.min(start + ITEMS_PER_PAGE, currentItems.size());
-        for (int i = start; i < end; i++) {
-            Label label = new Label(currentItems.get(i));
-            label.setStyle("-fx-font-size: 14px;");
-            label.setOnMouseClicked(event -> {
-                selectedItem = label.getText();
-                detailsName.setText(selectedItem);
-                fetchDetails(selectedItem);
-            });
-            pageBox.getChildren().add(label);
-        }
-        return pageBox;
-    }
-
     private void fetchDetails(String item) {
+        if (!showingCourses && searchIndexReady) {
+            User user = userIndex.findExact(item);
+            if (user != null) {
+                detailsDescription.setText(user.getEmail());
+                detailsProgressBar.setProgress(0);
+                return;
+            }
+        }
         Task<Void> task = new Task<Void>() {
             @Override
             protected Void call() throws Exception {
                 String query = showingCourses ? "SELECT description, progress FROM courses WHERE title = ?" : "SELECT email FROM users WHERE first_name = ?";
-                try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+                try (Connection conn = DatabaseConnection.getConnection();
                      PreparedStatement stmt = conn.prepareStatement(query)) {
                     stmt.setString(1, item);
                     ResultSet rs = stmt.executeQuery();
@@ -493,7 +642,7 @@ public class AdminDashboardController {
                 return null;
             }
         };
-        new Thread(task).start();
+        tasks.submit(task);
     }
 
     private void loadRecentActivity() {
@@ -501,7 +650,7 @@ public class AdminDashboardController {
             @Override
             protected Void call() throws Exception {
                 StringBuilder activityLog = new StringBuilder("Recent Activity:\n");
-                try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+                try (Connection conn = DatabaseConnection.getConnection();
                      Statement stmt = conn.createStatement();
                      ResultSet rs = stmt.executeQuery(
                              "SELECT first_name, last_name, user_type, created_at FROM users ORDER BY created_at DESC LIMIT 5")) {
@@ -519,7 +668,7 @@ public class AdminDashboardController {
                 return null;
             }
         };
-        new Thread(task).start();
+        tasks.submit(task);
     }
 
     @FXML
@@ -528,6 +677,7 @@ public class AdminDashboardController {
         if (timer != null) {
             timer.cancel();
         }
+        tasks.cancelAll();
         stage.close();
     }
 
@@ -540,51 +690,22 @@ public class AdminDashboardController {
         if (timer != null) {
             timer.cancel();
         }
+        tasks.cancelAll();
     }
 
     private void updateSummaryCards() {
         Task<Void> task = new Task<Void>() {
             @Override
             protected Void call() throws Exception {
-                try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-                    // Students count
-                    try (ResultSet rs = conn.createStatement().executeQuery(
-                            "SELECT COUNT(*) FROM users WHERE user_type = 'student'")) {
-                        if (rs.next()) {
-                            final int count = rs.getInt(1);
-                            Platform.runLater(() -> studentsCountLabel.setText(String.valueOf(count)));
-                        }
-                    }
-
-                    // Courses count
-                    try (ResultSet rs = conn.createStatement().executeQuery(
-                            "SELECT COUNT(*) FROM courses")) {
-                        if (rs.next()) {
-                            final int count = rs.getInt(1);
-                            Platform.runLater(() -> coursesCountLabel.setText(String.valueOf(count)));
-                        }
-                    }
-
-                    // Instructors count
-                    try (ResultSet rs = conn.createStatement().executeQuery(
-                            "SELECT COUNT(*) FROM users WHERE user_type = 'instructor'")) {
-                        if (rs.next()) {
-                            final int count = rs.getInt(1);
-                            Platform.runLater(() -> instructorsCountLabel.setText(String.valueOf(count)));
-                        }
-                    }
-
-                    // Average progress
-                    try (ResultSet rs = conn.createStatement().executeQuery(
-                            "SELECT AVG(progress) FROM courses")) {
-                        if (rs.next()) {
-                            final double avg = rs.getDouble(1);
-                            Platform.runLater(() -> {
-                                overallProgressBar.setProgress(avg);
-                                overallProgressIndicator.setProgress(avg);
-                            });
-                        }
-                    }
+                try {
+                    DashboardSummary.Snapshot summary = DashboardSummary.getInstance().get();
+                    Platform.runLater(() -> {
+                        studentsCountLabel.setText(String.valueOf(summary.students()));
+                        coursesCountLabel.setText(String.valueOf(summary.courses()));
+                        instructorsCountLabel.setText(String.valueOf(summary.instructors()));
+                        overallProgressBar.setProgress(summary.averageProgress());
+                        overallProgressIndicator.setProgress(summary.averageProgress());
+                    });
                 } catch (SQLException e) {
                     Platform.runLater(() -> {
                         studentsCountLabel.setText("120");
@@ -597,7 +718,7 @@ public class AdminDashboardController {
                 return null;
             }
         };
-        new Thread(task).start();
+        tasks.submit(task);
     }
 
     @FXML
@@ -640,7 +761,8 @@ public class AdminDashboardController {
             Task<Void> addUserTask = new Task<Void>() {
                 @Override
                 protected Void call() throws Exception {
-                    try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+                    String passwordHash = CredentialService.sha256Hex(password);
+                    try (Connection conn = DatabaseConnection.getConnection();
                          PreparedStatement stmt = conn.prepareStatement(
                                  "INSERT INTO users (first_name, last_name, email, password_hash, user_type, created_at) " +
                                          "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)")) {
@@ -648,12 +770,17 @@ public class AdminDashboardController {
                         stmt.setString(1, name.split(" ")[0]);
                         stmt.setString(2, name.contains(" ") ? name.split(" ")[1] : "");
                         stmt.setString(3, email);
-                        stmt.setString(4, hashPassword(password));
+                        stmt.setString(4, passwordHash);
                         stmt.setString(5, role);
                         stmt.executeUpdate();
 
                         Platform.runLater(() -> {
-                            loadUserTable();
+                            String firstName = name.split(" ")[0];
+                            userIndex.put(email, firstName, new User(firstName, email, role));
+                            DashboardSummary.getInstance().invalidate();
+                            updateSummaryCards();
+                            itemSearch.invalidate();
+                            refreshUserTable();
                             loadRecentActivity();
                             showAlert(Alert.AlertType.INFORMATION, "Success", "User added");
                         });
@@ -664,7 +791,7 @@ public class AdminDashboardController {
                     return null;
                 }
             };
-            new Thread(addUserTask).start();
+            tasks.submit(addUserTask);
         }
     }
 
@@ -676,20 +803,6 @@ public class AdminDashboardController {
         alert.showAndWait();
     }
 
-    private String hashPassword(String password) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes());
-            StringBuilder hex = new StringBuilder();
-            for (byte b : hash) {
-                hex.append(String.format("%02x", b));
-            }
-            return hex.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Hashing algorithm not available", e);
-        }
-    }
-
     @FXML
     private void toggleTheme() {
         Scene scene = mainContent.getScene();
@@ -712,31 +825,29 @@ public class AdminDashboardController {
         }
     }
 
-    private void updateItemList(String searchTerm) {
-        Task<Void> task = new Task<Void>() {
-            @Override
-            protected Void call() throws Exception {
-                List<String> items = new ArrayList<>();
-                String query = showingCourses ? "SELECT title FROM courses WHERE title LIKE ?" : "SELECT first_name FROM users WHERE first_name LIKE ?";
-                try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-                     PreparedStatement stmt = conn.prepareStatement(query)) {
-                    stmt.setString(1, "%" + searchTerm + "%");
-                    ResultSet rs = stmt.executeQuery();
-                    while (rs.next()) {
-                        items.add(rs.getString(1));
-                    }
-                } catch (SQLException e) {
-                    Platform.runLater(() -> notificationArea.setText("Error loading items: " + e.getMessage()));
-                }
-                Platform.runLater(() -> {
-                    currentItems = items;
-                    pagination.setPageCount((int) Math.ceil(items.size() / (double) ITEMS_PER_PAGE));
-                    pagination.setPageFactory(page -> createPage(page));
-                });
-                return null;
+    // Runs on a background thread via itemSearch
+    private List<String> queryItems(boolean courses, String searchTerm) throws SQLException {
+        if (searchIndexReady) {
+            return courses
+                    ? courseIndex.search(searchTerm)
+                    : userIndex.search(searchTerm).stream().map(User::getName).collect(Collectors.toList());
+        }
+        List<String> items = new ArrayList<>();
+        String query = courses ? "SELECT title FROM courses WHERE title LIKE ?" : "SELECT first_name FROM users WHERE first_name LIKE ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, "%" + searchTerm + "%");
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                items.add(rs.getString(1));
             }
-        };
-        new Thread(task).start();
+        }
+        return items;
+    }
+
+    private void showItems(List<String> items) {
+        currentItems = items;
+        itemList.getItems().setAll(items);
     }
 
     public static class User {
@@ -0,0 +1,200 @@
+package test.lms;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.input.InputEvent;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// Decorative animations (the pulsing buttons) run only while someone can see them. Each one is paused while
+// its node is off screen, its window is unfocused or iconified, or no input has reached the app for
+// ANIMATION_IDLE_SECONDS; the next input resumes them. With nothing running and nothing changing the toolkit
+// stops pulsing, so an idle window costs next to nothing. Pulses of the watched scenes are counted so that
+// can be checked. register() may be called from any thread; the rest is FX thread only.
+public final class AnimationGovernor {
+    private static final Logger LOGGER = Logger.getLogger(AnimationGovernor.class.getName());
+    private static final long IDLE_NANOS = TimeUnit.SECONDS.toNanos(Math.max(1, Settings.longSetting("ANIMATION_IDLE_SECONDS", 60)));
+    // Fades this slow look the same at 30 updates a second as at the display's 60
+    private static final double MAX_FPS = Math.max(1, Settings.doubleSetting("ANIMATION_MAX_FPS", 30));
+
+    private static final List<WeakReference<Governed>> GOVERNED = new ArrayList<>();
+    private static final AtomicLong PULSES = new AtomicLong();
+    private static final EventHandler<Event> INPUT = e -> inputSeen();
+    private static final ScheduledExecutorService IDLE_CHECK = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "lms-animation-idle");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static volatile long lastInputAt = System.nanoTime();
+    private static volatile boolean idle;
+    private static volatile double pulsesPerSecond;
+    // idle-check thread only
+    private static long lastCheckAt = System.nanoTime();
+    private static long lastPulses;
+
+    static {
+        IDLE_CHECK.scheduleWithFixedDelay(AnimationGovernor::check, 1, 1, TimeUnit.SECONDS);
+    }
+
+    private AnimationGovernor() {
+    }
+
+    // The usual attention-drawing fade, capped at MAX_FPS and governed from the start. Callers do not play it.
+    public static Animation pulse(Node node, Duration halfCycle, double fromOpacity, double toOpacity) {
+        Timeline timeline = new Timeline(MAX_FPS,
+                new KeyFrame(Duration.ZERO, new KeyValue(node.opacityProperty(), fromOpacity)),
+                new KeyFrame(halfCycle, new KeyValue(node.opacityProperty(), toOpacity)));
+        timeline.setCycleCount(Animation.INDEFINITE);
+        timeline.setAutoReverse(true);
+        register(node, timeline);
+        return timeline;
+    }
+
+    // Hands play/pause of animation over to the governor for as long as node exists.
+    public static void register(Node node, Animation animation) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> register(node, animation));
+            return;
+        }
+        Governed governed = new Governed(node, animation);
+        // The node's listener is what keeps the entry alive; once a discarded screen is collected, so is it
+        node.sceneProperty().addListener((obs, oldScene, scene) -> governed.update());
+        GOVERNED.add(new WeakReference<>(governed));
+        governed.update();
+    }
+
+    // Counts the scene's pulses and lets its input end an idle period. Scenes with governed nodes are
+    // watched automatically; the primary scene is watched up front so input anywhere in it counts.
+    public static void watch(Scene scene) {
+        if (scene.getProperties().putIfAbsent(AnimationGovernor.class, Boolean.TRUE) != null) {
+            return;
+        }
+        scene.addEventFilter(InputEvent.ANY, INPUT);
+        scene.addPostLayoutPulseListener(PULSES::incrementAndGet);
+        scene.windowProperty().addListener((obs, oldWindow, window) -> updateAll());
+    }
+
+    public static Stats getStats() {
+        int animations = 0;
+        int running = 0;
+        for (WeakReference<Governed> ref : GOVERNED) {
+            Governed governed = ref.get();
+            if (governed != null) {
+                animations++;
+                if (governed.animation.getStatus() == Animation.Status.RUNNING) {
+                    running++;
+                }
+            }
+        }
+        return new Stats(animations, running, idle, PULSES.get(), pulsesPerSecond);
+    }
+
+    public record Stats(int animations, int running, boolean idle, long pulses, double pulsesPerSecond) {
+        @Override
+        public String toString() {
+            return String.format("animations=%d running=%d idle=%b pulses=%d pulsesPerSecond=%.1f",
+                    animations, running, idle, pulses, pulsesPerSecond);
+        }
+    }
+
+    private static void watch(Window window) {
+        if (window.getProperties().putIfAbsent(AnimationGovernor.class, Boolean.TRUE) != null) {
+            return;
+        }
+        window.focusedProperty().addListener((obs, was, is) -> updateAll());
+        window.showingProperty().addListener((obs, was, is) -> updateAll());
+        if (window instanceof Stage stage) {
+            stage.iconifiedProperty().addListener((obs, was, is) -> updateAll());
+        }
+    }
+
+    private static void inputSeen() {
+        lastInputAt = System.nanoTime();
+        if (idle) {
+            idle = false;
+            updateAll();
+        }
+    }
+
+    private static void check() {
+        long now = System.nanoTime();
+        long pulses = PULSES.get();
+        pulsesPerSecond = (pulses - lastPulses) * 1e9 / (now - lastCheckAt);
+        lastPulses = pulses;
+        lastCheckAt = now;
+        if (!idle && now - lastInputAt > IDLE_NANOS) {
+            Platform.runLater(AnimationGovernor::enterIdle);
+        }
+    }
+
+    // Checked again here in case input arrived after the idle check looked
+    private static void enterIdle() {
+        if (!idle && System.nanoTime() - lastInputAt > IDLE_NANOS) {
+            idle = true;
+            LOGGER.fine("Idle, pausing decorative animations: " + getStats());
+            updateAll();
+        }
+    }
+
+    private static void updateAll() {
+        for (Iterator<WeakReference<Governed>> it = GOVERNED.iterator(); it.hasNext(); ) {
+            Governed governed = it.next().get();
+            if (governed == null) {
+                it.remove();
+            } else {
+                governed.update();
+            }
+        }
+    }
+
+    private static final class Governed {
+        private final Node node;
+        private final Animation animation;
+
+        Governed(Node node, Animation animation) {
+            this.node = node;
+            this.animation = animation;
+        }
+
+        void update() {
+            Scene scene = node.getScene();
+            Window window = scene == null ? null : scene.getWindow();
+            if (scene != null) {
+                watch(scene);
+            }
+            if (window != null) {
+                watch(window);
+            }
+            boolean seen = window != null && window.isShowing() && window.isFocused()
+                    && !(window instanceof Stage stage && stage.isIconified()) && !idle;
+            if (seen) {
+                if (animation.getStatus() != Animation.Status.RUNNING) {
+                    animation.play();
+                }
+            } else if (animation.getStatus() == Animation.Status.RUNNING) {
+                // Rest at the first frame rather than wherever the fade happened to be
+                animation.pause();
+                animation.jumpTo(Duration.ZERO);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package test.lms;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// Buffers audit events and writes them to audit_logs with JDBC batches from a single writer thread.
+// log() never touches the database; a batch is flushed once AUDIT_BATCH_SIZE events are queued or
+// AUDIT_FLUSH_MS has passed since the first one. close() drains whatever is left.
+public class AuditWriter {
+    private static final Logger LOGGER = Logger.getLogger(AuditWriter.class.getName());
+    private static final int BUFFER_SIZE = Math.max(1, Settings.intSetting("AUDIT_BUFFER_SIZE", 4096));
+    private static final int BATCH_SIZE = Math.max(1, Settings.intSetting("AUDIT_BATCH_SIZE", 100));
+    private static final long FLUSH_MILLIS = Math.max(1, Settings.longSetting("AUDIT_FLUSH_MS", 500));
+    private static final long DRAIN_TIMEOUT_MILLIS = 5000;
+    private static final String INSERT_SQL = "INSERT INTO audit_logs (user_id, action, details, timestamp) VALUES (?, ?, ?, ?)";
+
+    private record Event(int userId, String action, String details, long createdAt) {
+    }
+
+    private final ConnectionPool pool;
+    private final BlockingQueue<Event> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+    private final Thread writer;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean closed;
+
+    public AuditWriter(ConnectionPool pool) {
+        this.pool = pool;
+        this.writer = new Thread(this::runWriter, "lms-audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Called from the FX thread. When the buffer is full the event is dropped and counted rather than
+    // blocking the UI behind a slow database.
+    public void log(int userId, String action, String details) {
+        if (closed || !buffer.offer(new Event(userId, action, details, System.currentTimeMillis()))) {
+            if (dropped.incrementAndGet() % 100 == 1) {
+                LOGGER.warning("Audit buffer full or closed; dropped " + dropped.get() + " event(s) so far");
+            }
+        }
+    }
+
+    // Stops accepting events and waits for the queued ones to be written.
+    public void close() {
+        closed = true;
+        try {
+            writer.join(DRAIN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            LOGGER.warning("Audit writer stopped with " + buffer.size() + " event(s) unwritten");
+        }
+        LOGGER.info("Audit writer closed: written=" + written.get() + " dropped=" + dropped.get() + " failed=" + failed.get());
+    }
+
+    private void runWriter() {
+        List<Event> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed) {
+            try {
+                Event first = buffer.poll(FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_MILLIS);
+                while (batch.size() < BATCH_SIZE) {
+                    long remaining = deadline - System.nanoTime();
+                    Event next = remaining > 0 ? buffer.poll(remaining, TimeUnit.NANOSECONDS) : buffer.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+            flush(batch);
+        }
+        // Drain: everything queued before close() is written in full batches.
+        while (buffer.drainTo(batch, BATCH_SIZE) > 0) {
+            flush(batch);
+        }
+        flush(batch);
+    }
+
+    private void flush(List<Event> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+                for (Event event : batch) {
+                    bind(stmt, event);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                written.addAndGet(batch.size());
+            } catch (SQLException e) {
+                conn.rollback();
+                LOGGER.warning("Audit batch of " + batch.size() + " failed, retrying row by row: " + e.getMessage());
+                writeIndividually(conn, batch);
+            }
+        } catch (SQLException e) {
+            failed.addAndGet(batch.size());
+            LOGGER.severe("Audit log failed: " + e.getMessage());
+        }
+        batch.clear();
+    }
+
+    // One bad row (e.g. a user deleted since the event) must not lose the rest of the batch.
+    private void writeIndividually(Connection conn, List<Event> batch) throws SQLException {
+        conn.setAutoCommit(true);
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+            for (Event event : batch) {
+                try {
+                    bind(stmt, event);
+                    stmt.executeUpdate();
+                    written.incrementAndGet();
+                } catch (SQLException e) {
+                    failed.incrementAndGet();
+                    LOGGER.severe("Audit log failed for " + event.action() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, Event event) throws SQLException {
+        // Anonymous events (failed logins, registrations) have no user row to reference
+        if (event.userId() > 0) {
+            stmt.setInt(1, event.userId());
+        } else {
+            stmt.setNull(1, Types.INTEGER);
+        }
+        stmt.setString(2, event.action());
+        stmt.setString(3, event.details());
+        stmt.setTimestamp(4, new Timestamp(event.createdAt()));
+    }
+}
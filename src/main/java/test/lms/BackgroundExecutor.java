@@ -0,0 +1,191 @@
+package test.lms;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// Owns every background task started from the UI. Virtual threads by default;
+// set LMS_EXECUTOR=platform to use a bounded pool of platform threads instead.
+public final class BackgroundExecutor {
+    private static final Logger LOGGER = Logger.getLogger(BackgroundExecutor.class.getName());
+    private static final int PLATFORM_QUEUE_CAPACITY = 256;
+
+    private static final AtomicInteger QUEUED = new AtomicInteger();
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+    private static final AtomicLong COMPLETED = new AtomicLong();
+    private static final AtomicLong REJECTED = new AtomicLong();
+    private static final AtomicLong TOTAL_QUEUE_NANOS = new AtomicLong();
+    private static final AtomicLong TOTAL_RUN_NANOS = new AtomicLong();
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private BackgroundExecutor() {
+    }
+
+    private static ExecutorService createExecutor() {
+        if ("platform".equalsIgnoreCase(System.getenv("LMS_EXECUTOR"))) {
+            int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+            AtomicInteger counter = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(PLATFORM_QUEUE_CAPACITY), r -> {
+                        Thread t = new Thread(r, "lms-task-" + counter.getAndIncrement());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("lms-task-", 0).factory());
+    }
+
+    public static TaskGroup newGroup(String name) {
+        return new TaskGroup(name);
+    }
+
+    public static Stats getStats() {
+        long completed = COMPLETED.get();
+        return new Stats(QUEUED.get(), RUNNING.get(), completed, REJECTED.get(),
+                completed == 0 ? 0 : TOTAL_QUEUE_NANOS.get() / completed / 1_000_000.0,
+                completed == 0 ? 0 : TOTAL_RUN_NANOS.get() / completed / 1_000_000.0);
+    }
+
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+        LOGGER.info("Background executor stopped: " + getStats());
+    }
+
+    public record Stats(int queued, int running, long completed, long rejected, double avgQueueMillis, double avgRunMillis) {
+        @Override
+        public String toString() {
+            return String.format("queued=%d running=%d completed=%d rejected=%d avgQueue=%.2fms avgRun=%.2fms",
+                    queued, running, completed, rejected, avgQueueMillis, avgRunMillis);
+        }
+    }
+
+    // The tasks started by one screen, so they can be cancelled together when the screen is left.
+    public static final class TaskGroup {
+        private final String name;
+        private final Set<TrackedTask> inFlight = ConcurrentHashMap.newKeySet();
+
+        private TaskGroup(String name) {
+            this.name = name;
+        }
+
+        // Accepts plain runnables as well as javafx.concurrent.Task, which is cancelled along with its wrapper.
+        public Future<?> submit(Runnable work) {
+            TrackedTask task = new TrackedTask(work);
+            inFlight.add(task);
+            QUEUED.incrementAndGet();
+            try {
+                EXECUTOR.execute(task);
+            } catch (RejectedExecutionException e) {
+                QUEUED.decrementAndGet();
+                REJECTED.incrementAndGet();
+                LOGGER.warning("Task rejected for " + name + ": " + getStats());
+                // Before the cancel below reaches it, so supply() callers see the rejection rather than a cancellation
+                if (work instanceof SupplyTask<?> supplied) {
+                    supplied.completeExceptionally(new RejectedExecutionException("Task rejected for " + name, e));
+                }
+                task.cancel(false);
+            }
+            return task;
+        }
+
+        // Runs work in the background and exposes the result as a future; cancelAll() cancels it too.
+        public <T> CompletableFuture<T> supply(Callable<T> work) {
+            SupplyTask<T> result = new SupplyTask<>(work);
+            Future<?> task = submit(result);
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    task.cancel(true);
+                }
+            });
+            return result;
+        }
+
+        public void cancelAll() {
+            int count = inFlight.size();
+            for (TrackedTask task : inFlight) {
+                task.cancel(true);
+            }
+            inFlight.clear();
+            if (count > 0) {
+                LOGGER.info("Cancelled " + count + " background task(s) for " + name);
+            }
+        }
+
+        private static final class SupplyTask<T> extends CompletableFuture<T> implements Runnable {
+            private final Callable<T> work;
+
+            private SupplyTask(Callable<T> work) {
+                this.work = work;
+            }
+
+            @Override
+            public void run() {
+                if (isDone()) {
+                    return;
+                }
+                try {
+                    complete(work.call());
+                } catch (Throwable e) {
+                    completeExceptionally(e);
+                }
+            }
+        }
+
+        private final class TrackedTask extends FutureTask<Void> {
+            private final Runnable work;
+            private final long submittedAt = System.nanoTime();
+
+            private TrackedTask(Runnable work) {
+                super(work, null);
+                this.work = work;
+            }
+
+            @Override
+            public void run() {
+                if (isDone()) {
+                    QUEUED.decrementAndGet();
+                    return;
+                }
+                long startedAt = System.nanoTime();
+                QUEUED.decrementAndGet();
+                RUNNING.incrementAndGet();
+                try {
+                    super.run();
+                } finally {
+                    RUNNING.decrementAndGet();
+                    COMPLETED.incrementAndGet();
+                    TOTAL_QUEUE_NANOS.addAndGet(startedAt - submittedAt);
+                    TOTAL_RUN_NANOS.addAndGet(System.nanoTime() - startedAt);
+                }
+            }
+
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                if (work instanceof Future<?> future) {
+                    future.cancel(mayInterruptIfRunning);
+                }
+                return super.cancel(mayInterruptIfRunning);
+            }
+
+            @Override
+            protected void done() {
+                inFlight.remove(this);
+            }
+        }
+    }
+}
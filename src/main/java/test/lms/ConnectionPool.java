@@ -0,0 +1,374 @@
+package test.lms;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Bounded JDBC connection pool shared by the whole application.
+// Borrowed connections are proxies: close() hands the physical connection back to the pool.
+public class ConnectionPool {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final Properties connectionProperties = new Properties();
+    private final int minIdle = Settings.intSetting("DB_POOL_MIN_IDLE", 2);
+    private final int maxSize = Settings.intSetting("DB_POOL_MAX_SIZE", 10);
+    private final long borrowTimeoutMillis = Settings.intSetting("DB_POOL_BORROW_TIMEOUT_MS", 10_000);
+    private final long idleTimeoutMillis = Settings.intSetting("DB_POOL_IDLE_TIMEOUT_MS", 300_000);
+    private final long validationIntervalMillis = Settings.intSetting("DB_POOL_VALIDATION_INTERVAL_MS", 30_000);
+    private final long leakThresholdMillis = Settings.intSetting("DB_POOL_LEAK_THRESHOLD_MS", 60_000);
+    // Filling in a stack trace on every borrow is too dear to leave on; without it a leak report shows
+    // where the holding thread is now instead of where it borrowed.
+    private final boolean traceBorrows = Settings.intSetting("DB_POOL_LEAK_TRACE", 0) != 0;
+    private final int statementCacheSize = Settings.intSetting("DB_STATEMENT_CACHE_SIZE", 64);
+
+    private final Semaphore permits;
+    private final Deque<PooledEntry> idle = new ArrayDeque<>(); // most recently returned first
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong validationCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+
+    public ConnectionPool(String url, String user, String password) {
+        this.url = url;
+        connectionProperties.setProperty("user", user);
+        connectionProperties.setProperty("password", password);
+        // Cached statements are re-executed, so let the driver switch them to server-side prepared plans early
+        connectionProperties.setProperty("prepareThreshold", String.valueOf(Settings.intSetting("DB_PREPARE_THRESHOLD", 2)));
+        permits = new Semaphore(maxSize, true);
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lms-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, 15, TimeUnit.SECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection (" + getStats() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledEntry entry = takeIdle();
+            if (entry == null) {
+                entry = createEntry();
+            }
+            entry.borrowedAt = System.currentTimeMillis();
+            entry.borrower = Thread.currentThread();
+            entry.borrowSite = leakThresholdMillis > 0 && traceBorrows ? new Exception("Connection borrowed here") : null;
+            entry.leakReported = false;
+            entry.longLived = false;
+            borrowed.add(entry);
+            return entry.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // For borrows held on purpose for as long as the work takes (streaming reads, bulk imports), so the
+    // leak check does not report them. Only affects the current borrow of conn.
+    public static void expectLongHold(Connection conn) {
+        if (Proxy.isProxyClass(conn.getClass()) && Proxy.getInvocationHandler(conn) instanceof ConnectionPool.Handle handle) {
+            handle.entry.longLived = true;
+        }
+    }
+
+    public Stats getStats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        long borrows = borrowCount.get();
+        return new Stats(borrowed.size(), idleCount, maxSize, permits.getQueueLength(), borrows,
+                borrows == 0 ? 0 : totalWaitNanos.get() / borrows / 1_000_000.0,
+                maxWaitNanos.get() / 1_000_000.0, createdCount.get(), validationCount.get(), leakCount.get(),
+                statementCounters.hits(), statementCounters.misses(), statementCounters.evictions());
+    }
+
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        synchronized (idle) {
+            idle.forEach(PooledEntry::closeQuietly);
+            idle.clear();
+        }
+        LOGGER.info("Connection pool closed: " + getStats());
+    }
+
+    private PooledEntry takeIdle() {
+        while (true) {
+            PooledEntry entry;
+            synchronized (idle) {
+                entry = idle.pollFirst();
+            }
+            if (entry == null) {
+                return null;
+            }
+            if (isUsable(entry)) {
+                return entry;
+            }
+            entry.closeQuietly();
+        }
+    }
+
+    // Only connections that sat idle longer than the validation interval pay for a round trip.
+    private boolean isUsable(PooledEntry entry) {
+        if (System.currentTimeMillis() - entry.lastUsed < validationIntervalMillis) {
+            return true;
+        }
+        validationCount.incrementAndGet();
+        try {
+            return entry.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledEntry createEntry() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, connectionProperties);
+        createdCount.incrementAndGet();
+        return new PooledEntry(physical);
+    }
+
+    private void release(PooledEntry entry, boolean broken) {
+        borrowed.remove(entry);
+        entry.borrower = null;
+        entry.borrowSite = null;
+        try {
+            if (broken || closed || entry.physical.isClosed()) {
+                entry.closeQuietly();
+                return;
+            }
+            entry.statements.reset();
+            if (!entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            entry.lastUsed = System.currentTimeMillis();
+            synchronized (idle) {
+                idle.offerFirst(entry);
+            }
+        } catch (SQLException e) {
+            entry.closeQuietly();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // Runs on the housekeeper's schedule; anything thrown out of here would cancel it for good, so each
+    // step logs its own failure and the rest still run.
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        try {
+            evictIdle(now);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Idle connection eviction failed", e);
+        }
+        try {
+            checkLeaks(now);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Connection leak check failed", e);
+        }
+        try {
+            refill();
+        } catch (SQLException e) {
+            LOGGER.warning("Pool maintenance failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Pool maintenance failed", e);
+        }
+    }
+
+    private void evictIdle(long now) {
+        List<PooledEntry> evicted = new ArrayList<>();
+        synchronized (idle) {
+            // Oldest entries sit at the tail; keep at least minIdle around.
+            Iterator<PooledEntry> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() > minIdle) {
+                PooledEntry entry = it.next();
+                if (now - entry.lastUsed > idleTimeoutMillis) {
+                    it.remove();
+                    evicted.add(entry);
+                }
+            }
+        }
+        evicted.forEach(PooledEntry::closeQuietly);
+    }
+
+    private void checkLeaks(long now) {
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        for (PooledEntry entry : borrowed) {
+            if (!entry.leakReported && !entry.longLived && now - entry.borrowedAt > leakThresholdMillis) {
+                entry.leakReported = true;
+                leakCount.incrementAndGet();
+                LOGGER.log(Level.WARNING, "Possible connection leak: held for " + (now - entry.borrowedAt) + " ms", leakSite(entry));
+            }
+        }
+    }
+
+    private static Exception leakSite(PooledEntry entry) {
+        Exception site = entry.borrowSite;
+        Thread borrower = entry.borrower;
+        if (site == null && borrower != null) {
+            site = new Exception("Connection held by " + borrower.getName() + ", which is now here");
+            site.setStackTrace(borrower.getStackTrace());
+        }
+        return site;
+    }
+
+    private void refill() throws SQLException {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        int missing = Math.min(minIdle - idleCount, maxSize - idleCount - borrowed.size());
+        for (int i = 0; i < missing && !closed; i++) {
+            PooledEntry entry = createEntry();
+            synchronized (idle) {
+                idle.offerLast(entry);
+            }
+        }
+    }
+
+    public record Stats(int active, int idle, int maxSize, int waiting, long borrows,
+                        double avgWaitMillis, double maxWaitMillis, long created, long validations, long leaks,
+                        long statementHits, long statementMisses, long statementEvictions) {
+        @Override
+        public String toString() {
+            return String.format("active=%d idle=%d max=%d waiting=%d borrows=%d avgWait=%.2fms maxWait=%.2fms created=%d validations=%d leaks=%d stmtHits=%d stmtMisses=%d stmtEvictions=%d",
+                    active, idle, maxSize, waiting, borrows, avgWaitMillis, maxWaitMillis, created, validations, leaks, statementHits, statementMisses, statementEvictions);
+        }
+    }
+
+    private final class PooledEntry {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile Thread borrower;
+        private volatile Exception borrowSite;
+        private volatile boolean leakReported;
+        private volatile boolean longLived;
+
+        private PooledEntry(Connection physical) {
+            this.physical = physical;
+            this.statements = new StatementCache(physical, statementCacheSize, statementCounters);
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+
+        private void closeQuietly() {
+            statements.close();
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    // One handle per borrow, so a stale reference cannot touch a connection someone else now holds.
+    private final class Handle implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean closed;
+        private boolean broken;
+
+        private Handle(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(entry, broken);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + entry.physical + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                Object result;
+                if (method.getName().equals("prepareStatement") && args.length == 1 && statementCacheSize > 0) {
+                    result = entry.statements.prepare((Connection) proxy, (String) args[0]);
+                } else {
+                    result = method.invoke(entry.physical, args);
+                }
+                if (QueryMetrics.ENABLED && result instanceof Statement statement) {
+                    return QueryMetrics.wrap(statement, statement instanceof PreparedStatement ? (String) args[0] : null);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                    broken = true; // connection-level failure, do not hand it out again
+                }
+                throw cause;
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package test.lms;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+// All password hashing goes through here. BCrypt work runs on a dedicated pool of
+// CREDENTIAL_HASH_THREADS threads (default: half the cores), so a burst of logins queues here instead
+// of occupying the FX thread or the threads that hold database connections. Callers beyond
+// CREDENTIAL_MAX_PENDING are turned away rather than queued without limit.
+//
+// The BCrypt cost comes from BCRYPT_COST; when unset it is calibrated once so a hash takes about
+// BCRYPT_TARGET_MS, never going below the library default of 10.
+//
+// Bulk imports hash on a separate pool of IMPORT_HASH_THREADS threads at the fixed, lower
+// IMPORT_BCRYPT_COST, so an import neither queues ahead of logins nor takes hours; needsRehash
+// brings each imported hash up to the login cost on that user's first login.
+public final class CredentialService {
+    private static final Logger LOGGER = Logger.getLogger(CredentialService.class.getName());
+    private static final int THREADS = Math.max(1, Settings.intSetting("CREDENTIAL_HASH_THREADS",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+    private static final int MAX_PENDING = Math.max(1, Settings.intSetting("CREDENTIAL_MAX_PENDING", 64));
+    private static final long PENDING_WAIT_MILLIS = 2000;
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 14;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final int IMPORT_THREADS = Math.max(1, Settings.intSetting("IMPORT_HASH_THREADS",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 4)));
+    private static final int IMPORT_COST = Math.max(4, Math.min(31, Settings.intSetting("IMPORT_BCRYPT_COST", 8)));
+
+    private static final ForkJoinPool POOL = newPool(THREADS, "lms-hash-");
+    private static final ForkJoinPool IMPORT_POOL = newPool(IMPORT_THREADS, "lms-import-hash-");
+    private static final Semaphore PENDING = new Semaphore(MAX_PENDING);
+    private static final AtomicLong HASHES = new AtomicLong();
+    private static final AtomicLong IMPORT_HASHES = new AtomicLong();
+    private static final AtomicLong VERIFICATIONS = new AtomicLong();
+    private static final AtomicLong REJECTED = new AtomicLong();
+
+    // Reusable digest state for the SHA-256 path: no MessageDigest, byte[] or StringBuilder per call. Pooled
+    // rather than per thread, as callers run on virtual threads that each live for a single task.
+    private static final BlockingQueue<Sha256Buffers> SHA256 = new ArrayBlockingQueue<>(Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    private CredentialService() {
+    }
+
+    // Resolved on first use, which is always a background hash or login, so calibration never runs on the FX thread.
+    private static final class Cost {
+        private static final int VALUE = resolveCost();
+    }
+
+    public static int bcryptCost() {
+        return Cost.VALUE;
+    }
+
+    // Blocking; call from a background thread. Waits for a slot on the hashing pool.
+    public static String hash(String password) {
+        return runOnPool(() -> hashNow(password));
+    }
+
+    // Blocking; call from a background thread.
+    public static boolean verify(String password, String hash) {
+        return runOnPool(() -> {
+            VERIFICATIONS.incrementAndGet();
+            return hash != null && BCrypt.checkpw(password, hash);
+        });
+    }
+
+    // Hashes a bulk import's batch across the import pool's threads, never at more than the login cost.
+    public static ForkJoinTask<List<String>> hashAll(List<String> passwords) {
+        return IMPORT_POOL.submit(() -> {
+            int cost = Math.min(IMPORT_COST, bcryptCost());
+            return passwords.parallelStream().map(password -> {
+                IMPORT_HASHES.incrementAndGet();
+                return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+            }).collect(Collectors.toList());
+        });
+    }
+
+    // True when the hash was made with a lower cost than the current one and should be replaced after a
+    // successful login.
+    public static boolean needsRehash(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6)) < bcryptCost();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Lowercase hex SHA-256 of the UTF-8 password, as stored by the FXML login and signup screens.
+    public static String sha256Hex(String password) {
+        Sha256Buffers buffers = SHA256.poll();
+        if (buffers == null) {
+            buffers = new Sha256Buffers();
+        }
+        try {
+            int length = buffers.encode(password);
+            buffers.digest.update(buffers.input, 0, length);
+            buffers.digest.digest(buffers.output, 0, buffers.output.length);
+            char[] hex = buffers.hex;
+            for (int i = 0; i < buffers.output.length; i++) {
+                int b = buffers.output[i] & 0xff;
+                hex[i * 2] = HEX[b >>> 4];
+                hex[i * 2 + 1] = HEX[b & 0x0f];
+            }
+            return new String(hex);
+        } catch (DigestException e) {
+            buffers.digest.reset();
+            throw new IllegalStateException("SHA-256 output buffer too small", e);
+        } finally {
+            SHA256.offer(buffers); // dropped when the pool is already full
+        }
+    }
+
+    public static String getStats() {
+        return String.format("cost=%d threads=%d hashes=%d verifications=%d rejected=%d importCost=%d importThreads=%d importHashes=%d",
+                bcryptCost(), THREADS, HASHES.get(), VERIFICATIONS.get(), REJECTED.get(), IMPORT_COST, IMPORT_THREADS, IMPORT_HASHES.get());
+    }
+
+    private static ForkJoinPool newPool(int threads, String namePrefix) {
+        return new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(namePrefix + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    private static String hashNow(String password) {
+        HASHES.incrementAndGet();
+        return BCrypt.hashpw(password, BCrypt.gensalt(bcryptCost()));
+    }
+
+    private static <T> T runOnPool(Callable<T> work) {
+        try {
+            if (!PENDING.tryAcquire(PENDING_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                REJECTED.incrementAndGet();
+                throw new RejectedExecutionException("Too many password checks in progress, try again shortly");
+            }
+            try {
+                return POOL.submit(work).get();
+            } finally {
+                PENDING.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static int resolveCost() {
+        String configured = System.getenv("BCRYPT_COST");
+        if (configured != null && !configured.isBlank() && !configured.equalsIgnoreCase("auto")) {
+            int cost = Settings.intSetting("BCRYPT_COST", -1);
+            if (cost > 0) {
+                return Math.max(4, Math.min(31, cost));
+            }
+            // not a number: logged by Settings, calibrate instead
+        }
+        long targetMillis = Settings.longSetting("BCRYPT_TARGET_MS", 250);
+        BCrypt.hashpw("calibration", BCrypt.gensalt(MIN_COST)); // warm-up
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", BCrypt.gensalt(MIN_COST));
+        double baseMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000.0);
+        // Each cost step doubles the work
+        int cost = MIN_COST;
+        while (cost < MAX_COST && baseMillis * (1L << (cost + 1 - MIN_COST)) <= targetMillis) {
+            cost++;
+        }
+        LOGGER.info(String.format("BCrypt cost calibrated to %d (cost %d took %.1f ms, target %d ms)", cost, MIN_COST, baseMillis, targetMillis));
+        return cost;
+    }
+
+    private static final class Sha256Buffers {
+        private final MessageDigest digest;
+        private final byte[] output = new byte[32];
+        private final char[] hex = new char[64];
+        private byte[] input = new byte[64];
+
+        private Sha256Buffers() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        // UTF-8 encodes into the reusable input buffer; unpaired surrogates become '?', as String.getBytes does.
+        private int encode(String text) {
+            int needed = text.length() * 3;
+            if (input.length < needed) {
+                input = new byte[Math.max(needed, input.length * 2)];
+            }
+            int pos = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c < 0x80) {
+                    input[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    input[pos++] = (byte) (0xc0 | (c >> 6));
+                    input[pos++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, text.charAt(++i));
+                    input[pos++] = (byte) (0xf0 | (cp >> 18));
+                    input[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                    input[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                    input[pos++] = (byte) (0x80 | (cp & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    input[pos++] = '?';
+                } else {
+                    input[pos++] = (byte) (0xe0 | (c >> 12));
+                    input[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    input[pos++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            return pos;
+        }
+    }
+}
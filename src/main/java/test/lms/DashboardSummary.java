@@ -0,0 +1,66 @@
+package test.lms;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Figures behind the admin dashboard's summary cards, from a single aggregate query. A result is reused for
+// TTL_MILLIS, so other sessions' and instances' changes show up within that; the dashboard's own writes
+// invalidate it to show theirs at once. Nothing is counted by hand, so it cannot drift from the database.
+public class DashboardSummary {
+    private static final String SUMMARY_SQL =
+            "SELECT (SELECT COUNT(*) FROM users WHERE user_type = 'student') AS students, " +
+                    "(SELECT COUNT(*) FROM users WHERE user_type = 'instructor') AS instructors, " +
+                    "(SELECT COUNT(*) FROM courses) AS courses, " +
+                    "(SELECT COALESCE(AVG(progress), 0) FROM courses) AS avg_progress";
+    private static final long TTL_MILLIS = 5_000;
+    private static final DashboardSummary INSTANCE = new DashboardSummary();
+
+    private record Cached(Snapshot snapshot, long loadedAt) {
+    }
+
+    private volatile Cached cached;
+    // Bumped by invalidate(), so a load that started before it cannot store its older result
+    private final AtomicLong generation = new AtomicLong();
+
+    public static DashboardSummary getInstance() {
+        return INSTANCE;
+    }
+
+    public record Snapshot(int students, int instructors, int courses, double averageProgress) {
+    }
+
+    // Blocking; call from a background task. No lock is held during the query, so callers only ever wait on
+    // their own; two callers finding it expired together both run it.
+    public Snapshot get() throws SQLException {
+        Cached current = cached;
+        if (current != null && System.currentTimeMillis() - current.loadedAt() < TTL_MILLIS) {
+            return current.snapshot();
+        }
+        long startedIn = generation.get();
+        Snapshot snapshot = load();
+        if (generation.get() == startedIn) {
+            cached = new Cached(snapshot, System.currentTimeMillis());
+        }
+        return snapshot;
+    }
+
+    // After a write: the next get() recounts.
+    public void invalidate() {
+        generation.incrementAndGet();
+        cached = null;
+    }
+
+    private static Snapshot load() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SUMMARY_SQL)) {
+            if (!rs.next()) {
+                return new Snapshot(0, 0, 0, 0);
+            }
+            return new Snapshot(rs.getInt("students"), rs.getInt("instructors"), rs.getInt("courses"), rs.getDouble("avg_progress"));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package test.lms;
+
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.util.Duration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Search-as-you-type pipeline: waits for typing to pause, cancels superseded queries,
+// only delivers the newest result and remembers the last few terms. All methods run on the FX thread.
+public class DebouncedSearch<R> {
+    private static final int CACHE_SIZE = 32;
+
+    private final PauseTransition debounce;
+    private final BackgroundExecutor.TaskGroup tasks;
+    private final Function<String, String> cacheKey;
+    private final Function<String, Callable<R>> queryFactory;
+    private final Consumer<R> onResult;
+    private final Consumer<Throwable> onError;
+    private final Map<String, R> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, R> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private String pendingTerm = "";
+    private long sequence;
+    private Task<R> inFlight;
+
+    // cacheKey and queryFactory are called on the FX thread, so they may read UI state;
+    // the Callable returned by queryFactory runs in the background.
+    public DebouncedSearch(Duration delay, BackgroundExecutor.TaskGroup tasks, Function<String, String> cacheKey,
+                           Function<String, Callable<R>> queryFactory, Consumer<R> onResult, Consumer<Throwable> onError) {
+        this.tasks = tasks;
+        this.cacheKey = cacheKey;
+        this.queryFactory = queryFactory;
+        this.onResult = onResult;
+        this.onError = onError;
+        this.debounce = new PauseTransition(delay);
+        this.debounce.setOnFinished(e -> run(pendingTerm));
+    }
+
+    public void submit(String term) {
+        pendingTerm = term == null ? "" : term;
+        debounce.playFromStart();
+    }
+
+    public void submitNow(String term) {
+        debounce.stop();
+        run(term == null ? "" : term);
+    }
+
+    public void invalidate() {
+        cache.clear();
+    }
+
+    // Drops a pending term and any query in flight; nothing is delivered until the next submit.
+    public void cancel() {
+        debounce.stop();
+        ++sequence;
+        if (inFlight != null) {
+            inFlight.cancel(true);
+            inFlight = null;
+        }
+    }
+
+    private void run(String term) {
+        long seq = ++sequence;
+        if (inFlight != null) {
+            inFlight.cancel(true);
+            inFlight = null;
+        }
+
+        String key = cacheKey.apply(term);
+        R cached = cache.get(key);
+        if (cached != null) {
+            onResult.accept(cached);
+            return;
+        }
+
+        Callable<R> query = queryFactory.apply(term);
+        Task<R> task = new Task<R>() {
+            @Override
+            protected R call() throws Exception {
+                return query.call();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (seq == sequence) {
+                inFlight = null;
+                cache.put(key, task.getValue());
+                onResult.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(e -> {
+            if (seq == sequence) {
+                inFlight = null;
+                onError.accept(task.getException());
+            }
+        });
+        inFlight = task;
+        tasks.submit(task);
+    }
+}
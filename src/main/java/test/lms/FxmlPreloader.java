@@ -0,0 +1,117 @@
+package test.lms;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.util.Callback;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+// Loads FXML views on a background thread before they are needed, so switching to one is just attaching
+// its root. A preloaded view is handed out once by take(), or dropped by discard() when it will not be;
+// without a preload, take() loads on the caller.
+// Preloading is speculative, so controllers must keep initialize() to wiring nodes; anything with side
+// effects (queries, timers, animations) goes in Activatable.activate(), which take() runs on the FX thread.
+public final class FxmlPreloader {
+    private static final Logger LOGGER = Logger.getLogger(FxmlPreloader.class.getName());
+    private static final BackgroundExecutor.TaskGroup TASKS = BackgroundExecutor.newGroup("fxml-preload");
+    private static final Map<Class<?>, Constructor<?>> CONSTRUCTORS = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<View>> PRELOADED = new ConcurrentHashMap<>();
+
+    // Shared by every load; looks up each controller's constructor once instead of per load.
+    public static final Callback<Class<?>, Object> CONTROLLER_FACTORY = FxmlPreloader::newController;
+
+    public record View(Parent root, Object controller) {
+    }
+
+    public interface Activatable {
+        void activate();
+    }
+
+    private FxmlPreloader() {
+    }
+
+    // Safe to call repeatedly, e.g. on every keystroke; a view already loading or waiting is left alone.
+    public static void preload(String resource) {
+        PRELOADED.computeIfAbsent(resource, r -> {
+            long startedAt = System.nanoTime();
+            CompletableFuture<View> view = TASKS.supply(() -> load(r));
+            view.whenComplete((loaded, error) -> {
+                if (view.isCancelled()) {
+                    LOGGER.fine("Discarded preload of " + r);
+                } else if (error != null) {
+                    LOGGER.warning("Preloading " + r + " failed: " + error.getMessage());
+                } else {
+                    LOGGER.fine(String.format("Preloaded %s in %d ms", r, (System.nanoTime() - startedAt) / 1_000_000));
+                }
+            });
+            return view;
+        });
+    }
+
+    // FX thread. Waits for a preload still in progress rather than starting over.
+    public static View take(String resource) throws IOException {
+        CompletableFuture<View> preloaded = PRELOADED.remove(resource);
+        View view = null;
+        if (preloaded != null) {
+            try {
+                view = preloaded.join();
+            } catch (CompletionException | CancellationException e) {
+                // already logged; load it here instead
+            }
+        }
+        if (view == null) {
+            view = load(resource);
+        }
+        if (view.controller() instanceof Activatable activatable) {
+            activatable.activate();
+        }
+        return view;
+    }
+
+    // Drops a preload that will not be taken, stopping it if it is still loading, so its view is not kept.
+    public static void discard(String resource) {
+        CompletableFuture<View> preloaded = PRELOADED.remove(resource);
+        if (preloaded != null) {
+            preloaded.cancel(true);
+        }
+    }
+
+    private static View load(String resource) throws IOException {
+        URL location = FxmlPreloader.class.getResource(resource);
+        if (location == null) {
+            throw new IOException(resource + " not found");
+        }
+        FXMLLoader loader = new FXMLLoader(location);
+        // Background threads do not necessarily carry the application's context class loader
+        loader.setClassLoader(FxmlPreloader.class.getClassLoader());
+        loader.setControllerFactory(CONTROLLER_FACTORY);
+        Parent root = loader.load();
+        return new View(root, loader.getController());
+    }
+
+    private static Object newController(Class<?> type) {
+        try {
+            return CONSTRUCTORS.computeIfAbsent(type, FxmlPreloader::noArgConstructor).newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create controller " + type.getName(), e);
+        }
+    }
+
+    private static Constructor<?> noArgConstructor(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(type.getName() + " has no no-arg constructor", e);
+        }
+    }
+}
@@ -7,16 +7,17 @@ import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.sql.Connection;
+import java.sql.SQLException;
 
 public class HelloApplication extends Application {
     @Override
     public void start(Stage stage) throws IOException {
         // Check database connection
-        Connection connection = DatabaseConnection.getConnection();
-        if (connection != null) {
+        try (Connection connection = DatabaseConnection.getConnection()) {
             System.out.println("Database connection established!");
-        } else {
+        } catch (SQLException e) {
             System.out.println("Failed to connect to the database.");
+            e.printStackTrace();
         }
 
         FXMLLoader fxmlLoader = new FXMLLoader(HelloApplication.class.getResource("Login.fxml"));
@@ -26,6 +27,12 @@ public class HelloApplication extends Application {
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        BackgroundExecutor.shutdown();
+        DatabaseConnection.shutdown();
+    }
+
     public static void main(String[] args) {
         launch();
     }
@@ -1,7 +1,5 @@
 package test.lms;
 
-import javafx.animation.Animation;
-import javafx.animation.FadeTransition;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -10,17 +8,16 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.input.MouseEvent;
-import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 import javafx.event.ActionEvent;
-import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.sql.*;
 
-public class InstructorDashboardController {
+public class InstructorDashboardController implements FxmlPreloader.Activatable {
 
     @FXML private Label totalCoursesLabel;
     @FXML private Label totalStudentsLabel; // Optional
@@ -38,27 +35,17 @@ public class InstructorDashboardController {
     @FXML private Button shadowButton;
     @FXML private Button fadingButton;
 
-    private ObservableList<Course> coursesList = FXCollections.observableArrayList();
-
-    // Database connection info
-    private final String DB_URL = "jdbc:postgresql://localhost:5432/lms";
-    private final String DB_USER = "postgres";
-    private final String DB_PASSWORD = "654321";
+    private static final String MANAGE_STUDENTS = "/test/lms/ManageStudents.fxml";
 
-    private Connection conn;
+    private ObservableList<Course> coursesList = FXCollections.observableArrayList();
 
+    // May run on a preloading thread before anyone has logged in, so it only wires up nodes; see activate().
     @FXML
     public void initialize() {
         // Setup table columns
         colId.setCellValueFactory(new PropertyValueFactory<>("id"));
         colName.setCellValueFactory(new PropertyValueFactory<>("name"));
 
-        // Connect to PostgreSQL DB
-        connectDB();
-
-        // Load courses into table
-        refreshCourses();
-
         // Set table row click to populate edit field
         coursesTable.setOnMouseClicked((MouseEvent event) -> {
             Course selected = coursesTable.getSelectionModel().getSelectedItem();
@@ -70,33 +57,25 @@ public class InstructorDashboardController {
         // Setup DropShadow effect
         DropShadow dropShadow = new DropShadow();
         shadowButton.setEffect(dropShadow);
-
-        // Setup FadeTransition for fadingButton
-        FadeTransition fadeTransition = new FadeTransition(Duration.seconds(2), fadingButton);
-        fadeTransition.setFromValue(1.0);
-        fadeTransition.setToValue(0.3);
-        fadeTransition.setCycleCount(Animation.INDEFINITE);
-        fadeTransition.setAutoReverse(true);
-        fadeTransition.play();
     }
 
-    private void connectDB() {
-        try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            statusLabel.setText("Connected to DB");
-        } catch (SQLException e) {
-            statusLabel.setText("DB Connection failed: " + e.getMessage());
-            e.printStackTrace();
-        }
+    // FX thread, once the dashboard is actually shown.
+    @Override
+    public void activate() {
+        // Load courses into table
+        refreshCourses();
+        FxmlPreloader.preload(MANAGE_STUDENTS); // the one screen reachable from here
+
+        AnimationGovernor.pulse(fadingButton, Duration.seconds(2), 1.0, 0.3);
     }
 
     @FXML
     public void refreshCourses() {
-        if (conn == null) return;
         coursesList.clear();
 
         String sql = "SELECT id, name FROM courses ORDER BY id";
-        try (Statement stmt = conn.createStatement();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             int totalCourses = 0;
@@ -124,7 +103,8 @@ public class InstructorDashboardController {
         }
 
         String sql = "INSERT INTO courses (name) VALUES (?)";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, name);
             pstmt.executeUpdate();
             statusLabel.setText("Course added: " + name);
@@ -150,7 +130,8 @@ public class InstructorDashboardController {
         }
 
         String sql = "UPDATE courses SET name = ? WHERE id = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, newName);
             pstmt.setInt(2, selected.getId());
             pstmt.executeUpdate();
@@ -175,7 +156,8 @@ public class InstructorDashboardController {
         confirm.setContentText("Are you sure you want to delete the course: " + selected.getName() + "?");
         if (confirm.showAndWait().get() == ButtonType.OK) {
             String sql = "DELETE FROM courses WHERE id = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
                 pstmt.setInt(1, selected.getId());
                 pstmt.executeUpdate();
                 statusLabel.setText("Course deleted: " + selected.getName());
@@ -195,19 +177,13 @@ public class InstructorDashboardController {
 
     @FXML
     public void handleExit(ActionEvent event) {
-        if (conn != null) {
-            try {
-                conn.close();
-            } catch (SQLException ignored) {}
-        }
         Platform.exit();
     }
 
     @FXML
     public void ManageStudents() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("test/lms/ManageStudents.fxml"));
-            VBox manageStudentsView = loader.load();
+            Parent manageStudentsView = FxmlPreloader.take(MANAGE_STUDENTS).root();
 
             Stage stage = (Stage) statusLabel.getScene().getWindow();
             Scene scene = new Scene(manageStudentsView);
@@ -0,0 +1,82 @@
+package test.lms;
+
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import test.lms.LMSApplication.Course;
+import test.lms.LMSApplication.User;
+
+import java.util.function.IntConsumer;
+
+// One row of the main screen's item list. The ListView only creates as many cells as fit on screen and
+// rebinds them while scrolling, so the nodes and handlers here are built once per cell, not once per item.
+public class ItemCell extends ListCell<Object> {
+    private static final Font NAME_FONT = new Font("Arial", 16);
+    private static final Font DESCRIPTION_FONT = new Font("Arial", 12);
+
+    private final Label name = new Label();
+    private final Label description = new Label();
+    private final ProgressBar progress = new ProgressBar();
+    private final Button open;
+    private final VBox card;
+
+    // role decides the course button: students view content, instructors manage it, admins see users only
+    public ItemCell(String role, IntConsumer openCourse) {
+        name.setFont(NAME_FONT);
+        name.getStyleClass().add("heading");
+        description.setFont(DESCRIPTION_FONT);
+        progress.setPrefWidth(200);
+        card = new VBox(5, name, description, progress);
+        card.getStyleClass().add("item-card");
+        open = role.equals("student") ? new Button("View Content") : role.equals("instructor") ? new Button("Manage Content") : null;
+        if (open != null) {
+            open.setOnAction(e -> {
+                if (getItem() instanceof Course course) {
+                    openCourse.accept(course.getId());
+                }
+            });
+            card.getChildren().add(open);
+        }
+    }
+
+    @Override
+    protected void updateItem(Object item, boolean empty) {
+        super.updateItem(item, empty);
+        if (empty) {
+            setText(null);
+            setGraphic(null);
+        } else if (item == null) {
+            setText("Loading...");
+            setGraphic(null);
+        } else if (item instanceof Course course) {
+            name.setText(course.getName());
+            description.setText(course.getDescription());
+            progress.setProgress(course.getProgress());
+            showCourseParts(true);
+            setText(null);
+            setGraphic(card);
+        } else if (item instanceof User user) {
+            name.setText(user.getUsername());
+            showCourseParts(false);
+            setText(null);
+            setGraphic(card);
+        }
+    }
+
+    private void showCourseParts(boolean show) {
+        show(description, show);
+        show(progress, show);
+        if (open != null) {
+            show(open, show);
+        }
+    }
+
+    private static void show(Node node, boolean show) {
+        node.setVisible(show);
+        node.setManaged(show);
+    }
+}
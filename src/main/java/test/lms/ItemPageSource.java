@@ -0,0 +1,142 @@
+package test.lms;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntConsumer;
+
+import test.lms.LMSApplication.Course;
+import test.lms.LMSApplication.User;
+
+// Backs the main screen's item list (see PagedItemList). Pages are fetched on demand with keyset queries
+// (id > last id of the previous page), the next page is prefetched in the background and the most recently
+// used pages are kept. A source can also page over a list the session already holds, without touching the database.
+public class ItemPageSource {
+    private static final int CACHED_PAGES = 16;
+
+    private final LmsDataService dataService;
+    private final String role;
+    private final int userId;
+    private final int pageSize;
+    private final CompletableFuture<? extends List<?>> preloaded;
+    // Last item id of every page seen so far, used as the keyset anchor for the page after it.
+    private final ConcurrentSkipListMap<Integer, Integer> lastIds = new ConcurrentSkipListMap<>();
+    private final Map<Integer, CompletableFuture<List<Object>>> pages = new LinkedHashMap<>(CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CompletableFuture<List<Object>>> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    private int itemCount;
+    private IntConsumer onSizeChanged = count -> {};
+
+    public ItemPageSource(LmsDataService dataService, String role, int userId, int pageSize) {
+        this.dataService = dataService;
+        this.role = role;
+        this.userId = userId;
+        this.pageSize = pageSize;
+        this.preloaded = null;
+    }
+
+    public ItemPageSource(CompletableFuture<? extends List<?>> preloaded, int pageSize) {
+        this.dataService = null;
+        this.role = null;
+        this.userId = 0;
+        this.pageSize = pageSize;
+        this.preloaded = preloaded;
+    }
+
+    public int pageSize() {
+        return pageSize;
+    }
+
+    // Called from a background thread with the new item count when a page shows the count was an estimate.
+    public synchronized void setOnSizeChanged(IntConsumer listener) {
+        this.onSizeChanged = listener;
+    }
+
+    public CompletableFuture<Integer> countItems() {
+        CompletableFuture<Integer> total = preloaded != null ? preloaded.thenApply(List::size) : dataService.countItems(role, userId);
+        return total.thenApply(count -> {
+            synchronized (this) {
+                itemCount = count;
+            }
+            return count;
+        });
+    }
+
+    // The page if it has already arrived, otherwise null.
+    public synchronized List<Object> loadedPage(int index) {
+        CompletableFuture<List<Object>> page = pages.get(index);
+        return page != null && page.isDone() && !page.isCompletedExceptionally() ? page.join() : null;
+    }
+
+    public synchronized CompletableFuture<List<Object>> page(int index) {
+        CompletableFuture<List<Object>> page = pages.get(index);
+        if (page != null) {
+            return page;
+        }
+        if (preloaded != null) {
+            page = preloaded.thenApply(all -> new ArrayList<Object>(all.subList(Math.min(index * pageSize, all.size()), Math.min((index + 1) * pageSize, all.size()))));
+            pages.put(index, page);
+            return page;
+        }
+        Map.Entry<Integer, Integer> anchor = lastIds.floorEntry(index - 1);
+        int afterId = anchor == null ? 0 : anchor.getValue();
+        int skip = (anchor == null ? index : index - 1 - anchor.getKey()) * pageSize;
+        page = dataService.itemPage(role, userId, afterId, skip, pageSize);
+        pages.put(index, page);
+        CompletableFuture<List<Object>> loading = page;
+        page.whenComplete((items, error) -> {
+            if (error != null) {
+                synchronized (this) {
+                    pages.remove(index, loading);
+                }
+                return;
+            }
+            pageLoaded(index, items);
+        });
+        return page;
+    }
+
+    private void pageLoaded(int index, List<Object> items) {
+        if (!items.isEmpty()) {
+            lastIds.put(index, idOf(items.get(items.size() - 1)));
+        }
+        int end = index * pageSize + items.size();
+        int corrected;
+        synchronized (this) {
+            // A short page is the last one; a full page past the estimate means there are at least that many
+            corrected = items.size() < pageSize || end > itemCount ? end : itemCount;
+            if (corrected == itemCount) {
+                corrected = -1;
+            } else {
+                itemCount = corrected;
+            }
+        }
+        if (corrected >= 0) {
+            onSizeChanged.accept(corrected);
+        }
+        if (items.size() == pageSize) {
+            prefetch(index + 1);
+        }
+    }
+
+    // Looks one page past the known end too, so an underestimated count grows as the user pages forward.
+    private synchronized void prefetch(int index) {
+        if ((long) index * pageSize <= itemCount && !pages.containsKey(index)) {
+            page(index);
+        }
+    }
+
+    private static int idOf(Object item) {
+        if (item instanceof Course course) {
+            return course.getId();
+        }
+        return ((User) item).getId();
+    }
+}
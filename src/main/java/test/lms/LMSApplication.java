@@ -1,6 +1,9 @@
 package test.lms;
 
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -11,19 +14,22 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.geometry.*;
 import javafx.scene.effect.DropShadow;
-import javafx.animation.FadeTransition;
 import javafx.util.Duration;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 
-import java.net.URL;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.logging.*;
-import org.springframework.security.crypto.bcrypt.BCrypt;
 import java.io.File;
 
 public class LMSApplication extends Application {
@@ -31,15 +37,28 @@ public class LMSApplication extends Application {
     private static final String DB_USER = System.getenv("DB_USER") != null ? System.getenv("DB_USER") : "postgres";
     private static final String DB_PASSWORD = System.getenv("DB_PASSWORD") != null ? System.getenv("DB_PASSWORD") : "654321";
     private static final Logger LOGGER = Logger.getLogger(LMSApplication.class.getName());
-    private Connection connection;
-    private List<Object> items = new ArrayList<>();
-    private static final int ITEMS_PER_PAGE = 5;
+    // Held strongly so the handler configured in setupLogging is not lost when the logger is collected
+    private static final Logger PACKAGE_LOGGER = Logger.getLogger(LMSApplication.class.getPackageName());
+    // Written by the startup tasks, read on the FX thread once ready has completed
+    private volatile ConnectionPool pool;
+    private volatile LmsDataService dataService;
+    private CompletableFuture<Void> ready;
+    private SessionContext session;
+    private ItemPageSource itemPages;
+    private ListView<Object> itemList;
+    // Rows per database round trip while scrolling; ItemPageSource keeps the most recent pages
+    private static final int ITEMS_PER_FETCH = 50;
     private Stage primaryStage;
-    private Scene mainScene;
+    private ScreenRouter router;
+    // What the shared feedback panel is showing; set just before it is routed to
+    private Submission feedbackSubmission;
+    private int feedbackCourseId;
     private String loggedInUser;
     private String userRole;
     private int loggedInUserId;
-    private boolean darkMode = false;
+    private List<Double> chartValues = List.of();
+    // Held here so the weak registration on Theme lasts as long as the dashboard it repaints
+    private ChangeListener<Boolean> chartThemeListener;
 
     // Data Models
     public static class User {
@@ -97,6 +116,7 @@ public class LMSApplication extends Application {
             this.deadline = deadline;
         }
         public int getId() { return id; }
+        public int getCourseId() { return courseId; }
         public String getTitle() { return title; }
         public String getDescription() { return description; }
         public double getMaxScore() { return maxScore; }
@@ -111,15 +131,24 @@ public class LMSApplication extends Application {
         private String fileName;
         private Double score;
         private String feedback;
+        private String studentName;
+        private String assignmentTitle;
 
         public Submission(int id, int assignmentId, int studentId, String content, String fileName, Double score, String feedback) {
             this.id = id;
             this.assignmentId = assignmentId;
             this.studentId = studentId;
             this.content = content;
+            this.fileName = fileName;
             this.score = score;
             this.feedback = feedback;
         }
+
+        public Submission(int id, int assignmentId, int studentId, String content, String fileName, Double score, String feedback, String studentName, String assignmentTitle) {
+            this(id, assignmentId, studentId, content, fileName, score, feedback);
+            this.studentName = studentName;
+            this.assignmentTitle = assignmentTitle;
+        }
         public int getId() { return id; }
         public int getAssignmentId() { return assignmentId; }
         public int getStudentId() { return studentId; }
@@ -127,107 +156,106 @@ public class LMSApplication extends Application {
         public String getFeedback() { return feedback; }
         public String getContent() { return content; }
         public String getFileName() { return fileName; }
+        public String getStudentName() { return studentName; }
+        public String getAssignmentTitle() { return assignmentTitle; }
     }
 
     @Override
     public void start(Stage primaryStage) {
         this.primaryStage = primaryStage;
+        this.router = new ScreenRouter(primaryStage);
+        long startedAt = System.nanoTime();
         setupLogging();
 
-        try {
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            createTables();
-        } catch (SQLException e) {
-            showAlert("Database Error", "Failed to initialize database: " + e.getMessage());
-            LOGGER.severe("Database initialization failed: " + e.getMessage());
-            return;
-        }
+        // The login screen shows right away; the database and the hashing cost are prepared in parallel
+        // and only the buttons that need them wait for ready.
+        BackgroundExecutor.TaskGroup startup = BackgroundExecutor.newGroup("startup");
+        CompletableFuture<Void> database = startup.supply(() -> {
+            long phase = System.nanoTime();
+            ConnectionPool created = DatabaseConnection.getPool(DB_URL, DB_USER, DB_PASSWORD);
+            int applied = new SchemaMigrator(created).migrate();
+            logPhase("Schema check (" + applied + " migration(s) applied)", phase);
+            pool = created;
+            dataService = new LmsDataService(created);
+            return null;
+        });
+        CompletableFuture<Void> hashing = startup.supply(() -> {
+            long phase = System.nanoTime();
+            CredentialService.bcryptCost();
+            logPhase("Password hashing calibration", phase);
+            return null;
+        });
+        ready = CompletableFuture.allOf(database, hashing);
+        ready.whenComplete((ignored, error) -> {
+            if (error == null) {
+                logPhase("Startup complete", startedAt);
+            } else {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                LOGGER.severe("Database initialization failed: " + cause.getMessage());
+            }
+        });
+        onFx(ready, (ignored, error) -> {
+            if (error != null) {
+                showAlert("Database Error", "Failed to initialize database: " + error.getMessage());
+            }
+        });
 
         showLoginScreen();
+        logPhase("Login screen shown", startedAt);
+    }
+
+    private void logPhase(String phase, long startedAt) {
+        LOGGER.info(String.format("%s in %d ms", phase, (System.nanoTime() - startedAt) / 1_000_000));
+    }
+
+    // Keeps a button that needs the database disabled until startup has finished; stays disabled if it failed.
+    private void enableWhenReady(Button button) {
+        if (ready.isDone() && !ready.isCompletedExceptionally()) {
+            return;
+        }
+        button.setDisable(true);
+        onFx(ready, (ignored, error) -> button.setDisable(error != null));
     }
 
     private void setupLogging() {
         try {
             FileHandler fileHandler = new FileHandler("lms.log", true);
             fileHandler.setFormatter(new SimpleFormatter());
-            LOGGER.addHandler(fileHandler);
+            // On the package logger so the pool, migrations and query statistics end up in lms.log too
+            PACKAGE_LOGGER.addHandler(fileHandler);
             LOGGER.setLevel(Level.ALL);
         } catch (Exception e) {
             LOGGER.warning("Failed to setup logging: " + e.getMessage());
         }
     }
 
-    private void createTables() {
-        try (Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS users (id SERIAL PRIMARY KEY, username VARCHAR(50) UNIQUE NOT NULL, password_hash VARCHAR(60) NOT NULL, email VARCHAR(100) NOT NULL, role VARCHAR(20) NOT NULL CHECK (role IN ('admin', 'instructor', 'student')))");
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users");
-            rs.next();
-            if (rs.getInt(1) == 0) {
-                String[] users = {"admin1,admin1@example.com,adminpass,admin", "instructor1,instructor1@example.com,instpass,instructor", "student1,student1@example.com,studpass,student"};
-                for (String user : users) {
-                    String[] parts = user.split(",");
-                    stmt.executeUpdate(String.format("INSERT INTO users (username, email, password_hash, role) VALUES ('%s', '%s', '%s', '%s')", parts[0], parts[1], BCrypt.hashpw(parts[2], BCrypt.gensalt()), parts[3]));
-                }
-            }
-
-            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS courses (id SERIAL PRIMARY KEY, course_name VARCHAR(100) NOT NULL, description TEXT, instructor_id INTEGER REFERENCES users(id), created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, progress DOUBLE PRECISION DEFAULT 0.0)");
-            rs = stmt.executeQuery("SELECT COUNT(*) FROM courses");
-            rs.next();
-            if (rs.getInt(1) == 0) {
-                String[] courses = {"Java Basics,Intro to Java,instructor1,0.5", "Web Dev,HTML/CSS basics,instructor1,0.3"};
-                for (String course : courses) {
-                    String[] parts = course.split(",");
-                    stmt.executeUpdate(String.format("INSERT INTO courses (course_name, description, instructor_id, progress) VALUES ('%s', '%s', (SELECT id FROM users WHERE username = '%s'), %s)", parts[0], parts[1], parts[2], parts[3]));
-                }
-            }
-
-            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS enrollments (user_id INTEGER REFERENCES users(id), course_id INTEGER REFERENCES courses(id), progress DOUBLE PRECISION NOT NULL, PRIMARY KEY (user_id, course_id))");
-            rs = stmt.executeQuery("SELECT COUNT(*) FROM enrollments");
-            rs.next();
-            if (rs.getInt(1) == 0) {
-                stmt.executeUpdate("INSERT INTO enrollments (user_id, course_id, progress) VALUES ((SELECT id FROM users WHERE username = 'student1'), 1, 0.4)");
-            }
-
-            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS assignments (id SERIAL PRIMARY KEY, course_id INTEGER REFERENCES courses(id), title VARCHAR(100) NOT NULL, description TEXT, max_score DOUBLE PRECISION, deadline TIMESTAMP)");
-            rs = stmt.executeQuery("SELECT COUNT(*) FROM assignments");
-            rs.next();
-            if (rs.getInt(1) == 0) {
-                stmt.executeUpdate("INSERT INTO assignments (course_id, title, description, max_score, deadline) VALUES (1, 'Java Homework', 'Complete Chapter 1', 100, NOW() + INTERVAL '7 days')");
-            }
-
-            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS submissions (id SERIAL PRIMARY KEY, assignment_id INTEGER REFERENCES assignments(id), student_id INTEGER REFERENCES users(id), content TEXT, file_name VARCHAR(255), score DOUBLE PRECISION, feedback TEXT)");
-
-            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS audit_logs (id SERIAL PRIMARY KEY, user_id INTEGER REFERENCES users(id), action VARCHAR(100) NOT NULL, details TEXT, timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
-        } catch (SQLException e) {
-            showAlert("Database Error", "Failed to create tables: " + e.getMessage());
-            LOGGER.severe("Table creation failed: " + e.getMessage());
-        }
+    private void showLoginScreen() {
+        router.show("login", 400, 400, this::createLoginScreen);
+        primaryStage.setTitle("LMS Login");
+        primaryStage.show();
     }
 
-    private void showLoginScreen() {
+    private ScreenRouter.Screen createLoginScreen() {
         GridPane loginLayout = new GridPane();
         loginLayout.getStyleClass().add("root");
         loginLayout.setAlignment(Pos.CENTER);
         loginLayout.setPadding(new Insets(20));
         loginLayout.setVgap(10);
         loginLayout.setHgap(10);
-        updateTheme(loginLayout);
 
         Label titleLabel = new Label("LMS Login");
         titleLabel.setFont(new Font("Arial", 24));
-        titleLabel.setTextFill(darkMode ? Color.WHITE : Color.web("#3f51b5"));
+        titleLabel.getStyleClass().add("title");
         GridPane.setHalignment(titleLabel, HPos.CENTER);
 
         Label userLabel = new Label("Username:");
         userLabel.setFont(new Font("Arial", 14));
-        userLabel.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
         TextField usernameField = new TextField();
         usernameField.setPromptText("Enter username");
         usernameField.setPrefWidth(250);
 
         Label passLabel = new Label("Password:");
         passLabel.setFont(new Font("Arial", 14));
-        passLabel.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
         PasswordField passwordField = new PasswordField();
         passwordField.setPromptText("Enter password");
         passwordField.setPrefWidth(250);
@@ -237,83 +265,82 @@ public class LMSApplication extends Application {
         loginButton.setOnAction(e -> {
             String username = usernameField.getText().trim();
             String password = passwordField.getText();
-            if (authenticateUser(username, password)) {
-                logAudit("Login", "User " + username + " logged in");
-                showMainScreen();
-            } else {
-                showAlert("Login Failed", "Invalid username or password.");
-                logAudit("Failed Login", "Failed login attempt for " + username);
-            }
+            loginButton.setDisable(true);
+            deliver(dataService.authenticate(username, password), user -> {
+                loginButton.setDisable(false);
+                if (user != null) {
+                    userRole = user.getRole();
+                    loggedInUserId = user.getId();
+                    loggedInUser = user.getUsername();
+                    session = new SessionContext(dataService, user);
+                    session.preload();
+                    logAudit("Login", "User " + username + " logged in");
+                    showMainScreen();
+                } else {
+                    showAlert("Login Failed", "Invalid username or password.");
+                    logAudit("Failed Login", "Failed login attempt for " + username);
+                }
+            }, "Authentication failed", () -> loginButton.setDisable(false));
         });
 
         Button registerButton = new Button("Register");
         registerButton.setEffect(new DropShadow(10, Color.GRAY));
         registerButton.setOnAction(e -> showRegisterScreen());
 
-        Button toggleMode = new Button(darkMode ? "Light Mode" : "Dark Mode");
-        toggleMode.setOnAction(e -> {
-            darkMode = !darkMode;
-            toggleMode.setText(darkMode ? "Light Mode" : "Dark Mode");
-            updateTheme(loginLayout);
-            Scene loginScene = new Scene(loginLayout, 400, 400);
-            applyStylesheet(loginScene);
-            primaryStage.setScene(loginScene);
-        });
+        Button toggleMode = createThemeToggle();
 
         loginLayout.add(titleLabel, 0, 0, 2, 1);
         loginLayout.add(userLabel, 0, 1);
         loginLayout.add(usernameField, 1, 1);
         loginLayout.add(passLabel, 0, 2);
         loginLayout.add(passwordField, 1, 2);
+        enableWhenReady(loginButton);
         loginLayout.add(loginButton, 0, 3, 2, 1);
         loginLayout.add(registerButton, 0, 4, 1, 1);
         loginLayout.add(toggleMode, 1, 4);
 
-        Scene loginScene = new Scene(loginLayout, 400, 400);
-        applyStylesheet(loginScene);
-        primaryStage.setScene(loginScene);
-        primaryStage.setTitle("LMS Login");
-        primaryStage.show();
+        // Coming back from the register screen keeps the username but never the password
+        return new ScreenRouter.Screen(loginLayout, passwordField::clear);
     }
 
     private void showRegisterScreen() {
+        router.show("register", 400, 450, this::createRegisterScreen);
+        primaryStage.setTitle("LMS Register");
+    }
+
+    private ScreenRouter.Screen createRegisterScreen() {
         GridPane registerLayout = new GridPane();
         registerLayout.getStyleClass().add("root");
         registerLayout.setAlignment(Pos.CENTER);
         registerLayout.setPadding(new Insets(20));
         registerLayout.setVgap(10);
         registerLayout.setHgap(10);
-        updateTheme(registerLayout);
 
         Label titleLabel = new Label("LMS Register");
         titleLabel.setFont(new Font("Arial", 24));
-        titleLabel.setTextFill(darkMode ? Color.WHITE : Color.web("#ff9800"));
+        titleLabel.getStyleClass().add("title");
         GridPane.setHalignment(titleLabel, HPos.CENTER);
 
         Label userLabel = new Label("Username:");
         userLabel.setFont(new Font("Arial", 14));
-        userLabel.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
         TextField usernameField = new TextField();
         usernameField.setPromptText("Enter username");
         usernameField.setPrefWidth(250);
 
         Label emailLabel = new Label("Email:");
         emailLabel.setFont(new Font("Arial", 14));
-        emailLabel.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
         TextField emailField = new TextField();
         emailField.setPromptText("Enter email");
         emailField.setPrefWidth(250);
 
         Label passLabel = new Label("Password:");
         passLabel.setFont(new Font("Arial", 14));
-        passLabel.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
         PasswordField passwordField = new PasswordField();
         passwordField.setPromptText("Enter password");
         passwordField.setPrefWidth(250);
 
         Label roleLabel = new Label("Role:");
         roleLabel.setFont(new Font("Arial", 14));
-        roleLabel.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
         ChoiceBox<String> roleChoice = new ChoiceBox<>();
         roleChoice.getItems().addAll("admin", "instructor", "student");
         roleChoice.setValue("student");
@@ -336,24 +363,23 @@ public class LMSApplication extends Application {
                 return;
             }
 
-            if (registerUser(username, email, password, role)) {
-                showAlert("Success", "Registration successful! Please log in.");
-                showLoginScreen();
-            }
+            registerButton.setDisable(true);
+            deliver(dataService.registerUser(username, email, password, role), registered -> {
+                registerButton.setDisable(false);
+                if (registered) {
+                    logAudit("Register", "New user registered: " + username + " (" + role + ")");
+                    showAlert("Success", "Registration successful! Please log in.");
+                    showLoginScreen();
+                } else {
+                    showAlert("Registration Failed", "Username already exists.");
+                }
+            }, "Registration failed", () -> registerButton.setDisable(false));
         });
 
         Button backButton = new Button("Back to Login");
         backButton.setOnAction(e -> showLoginScreen());
 
-        Button toggleMode = new Button(darkMode ? "Light Mode" : "Dark Mode");
-        toggleMode.setOnAction(e -> {
-            darkMode = !darkMode;
-            toggleMode.setText(darkMode ? "Light Mode" : "Dark Mode");
-            updateTheme(registerLayout);
-            Scene registerScene = new Scene(registerLayout, 400, 450);
-            applyStylesheet(registerScene);
-            primaryStage.setScene(registerScene);
-        });
+        Button toggleMode = createThemeToggle();
 
         registerLayout.add(titleLabel, 0, 0, 2, 1);
         registerLayout.add(userLabel, 0, 1);
@@ -364,43 +390,17 @@ public class LMSApplication extends Application {
         registerLayout.add(passwordField, 1, 3);
         registerLayout.add(roleLabel, 0, 4);
         registerLayout.add(roleChoice, 1, 4);
+        enableWhenReady(registerButton);
         registerLayout.add(registerButton, 0, 5, 2, 1);
         registerLayout.add(backButton, 0, 6);
         registerLayout.add(toggleMode, 1, 6);
 
-        Scene registerScene = new Scene(registerLayout, 400, 450);
-        applyStylesheet(registerScene);
-        primaryStage.setScene(registerScene);
-        primaryStage.setTitle("LMS Register");
-    }
-
-    private boolean registerUser(String username, String email, String password, String role) {
-        try (PreparedStatement checkStmt = connection.prepareStatement("SELECT COUNT(*) FROM users WHERE username = ?")) {
-            checkStmt.setString(1, username);
-            ResultSet rs = checkStmt.executeQuery();
-            if (rs.next() && rs.getInt(1) > 0) {
-                showAlert("Registration Failed", "Username already exists.");
-                return false;
-            }
-        } catch (SQLException e) {
-            showAlert("Database Error", "Failed to check username: " + e.getMessage());
-            LOGGER.severe("Username check failed: " + e.getMessage());
-            return false;
-        }
-
-        try (PreparedStatement stmt = connection.prepareStatement("INSERT INTO users (username, email, password_hash, role) VALUES (?, ?, ?, ?)")) {
-            stmt.setString(1, username);
-            stmt.setString(2, email);
-            stmt.setString(3, BCrypt.hashpw(password, BCrypt.gensalt()));
-            stmt.setString(4, role);
-            stmt.executeUpdate();
-            logAudit("Register", "New user registered: " + username + " (" + role + ")");
-            return true;
-        } catch (SQLException e) {
-            showAlert("Database Error", "Registration failed: " + e.getMessage());
-            LOGGER.severe("Registration failed: " + e.getMessage());
-            return false;
-        }
+        return new ScreenRouter.Screen(registerLayout, () -> {
+            usernameField.clear();
+            emailField.clear();
+            passwordField.clear();
+            roleChoice.setValue("student");
+        });
     }
 
     private boolean isValidEmail(String email) {
@@ -408,82 +408,56 @@ public class LMSApplication extends Application {
         return email.matches(emailRegex);
     }
 
-    private boolean authenticateUser(String username, String password) {
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT id, password_hash, role FROM users WHERE username = ?")) {
-            stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                String storedHash = rs.getString("password_hash");
-                if (BCrypt.checkpw(password, storedHash)) {
-                    userRole = rs.getString("role");
-                    loggedInUserId = rs.getInt("id");
-                    loggedInUser = username;
-                    return true;
-                }
-            }
-            return false;
-        } catch (SQLException e) {
-            showAlert("Database Error", "Authentication failed: " + e.getMessage());
-            LOGGER.severe("Authentication error: " + e.getMessage());
-            return false;
-        }
+    private void showMainScreen() {
+        // Coming back to it keeps the items already loaded; actions that change them call loadItems
+        router.show("main", 1000, 700, this::createMainScreen);
+        primaryStage.setTitle("LMS - " + userRole);
     }
 
-    private void showMainScreen() {
+    private ScreenRouter.Screen createMainScreen() {
         BorderPane root = new BorderPane();
         root.getStyleClass().add("root");
-        updateTheme(root);
 
         root.setTop(createMenuBar());
         VBox centerLayout = new VBox(10);
         centerLayout.setPadding(new Insets(20));
-        ScrollPane scrollPane = new ScrollPane();
-        scrollPane.setFitToWidth(true);
-        updateTheme(scrollPane);
-
-        loadItems();
-        Pagination pagination = new Pagination((int) Math.ceil((double) items.size() / ITEMS_PER_PAGE));
-        pagination.setPageFactory(this::createPage);
-        scrollPane.setContent(pagination);
-        centerLayout.getChildren().addAll(createDashboard(), scrollPane);
+        itemList = new ListView<>();
+        itemList.getStyleClass().add("item-list");
+        String role = userRole;
+        itemList.setCellFactory(list -> new ItemCell(role, courseId -> {
+            if (role.equals("student")) {
+                viewCourseContent(courseId);
+            } else {
+                manageCourseContent(courseId);
+            }
+        }));
+        VBox.setVgrow(itemList, Priority.ALWAYS);
+        centerLayout.getChildren().addAll(createDashboard(), itemList);
 
         root.setCenter(centerLayout);
         root.setBottom(createActionButtons());
 
-        mainScene = new Scene(root, 1000, 700);
-        applyStylesheet(mainScene);
-        primaryStage.setScene(mainScene);
-        primaryStage.setTitle("LMS - " + userRole);
-
-        Button toggleMode = new Button(darkMode ? "Light Mode" : "Dark Mode");
-        toggleMode.setOnAction(e -> {
-            darkMode = !darkMode;
-            toggleMode.setText(darkMode ? "Light Mode" : "Dark Mode");
-            showMainScreen();
-        });
-        ((VBox) root.getCenter()).getChildren().add(toggleMode);
+        ((VBox) root.getCenter()).getChildren().add(createThemeToggle());
+        loadItems();
+        return new ScreenRouter.Screen(root);
     }
 
     private Node createDashboard() {
         VBox dashboard = new VBox(10);
         dashboard.setPadding(new Insets(10));
-        updateTheme(dashboard);
 
         Label title = new Label(userRole + " Dashboard");
         title.setFont(new Font("Arial", 20));
-        title.setTextFill(darkMode ? Color.WHITE : Color.web("#3f51b5"));
+        title.getStyleClass().add("title");
 
         if (userRole.equals("student")) {
             Label info = new Label("Upcoming Assignments: Check below");
-            info.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
             dashboard.getChildren().addAll(title, info);
         } else if (userRole.equals("instructor")) {
             Label info = new Label("Pending Grading: Check submissions");
-            info.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
             dashboard.getChildren().addAll(title, info);
         } else if (userRole.equals("admin")) {
             Label info = new Label("Manage Users and Courses");
-            info.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
             dashboard.getChildren().addAll(title, info);
         }
 
@@ -496,30 +470,41 @@ public class LMSApplication extends Application {
     }
 
     private void drawProgressChart(GraphicsContext gc) {
+        chartValues = List.of();
+        paintProgressChart(gc);
+        // Canvas pixels are not styled by CSS, so a theme switch repaints from the values already loaded
+        chartThemeListener = (obs, wasDark, nowDark) -> paintProgressChart(gc);
+        Theme.darkProperty().addListener(new WeakChangeListener<>(chartThemeListener));
+        CompletableFuture<List<Double>> progress = userRole.equals("student") ? session.progressValues() : dataService.progressValues(loggedInUserId);
+        onFx(progress, (values, error) -> {
+            if (error != null) {
+                LOGGER.severe("Chart data failed: " + error.getMessage());
+                return;
+            }
+            chartValues = values;
+            paintProgressChart(gc);
+        });
+    }
+
+    private void paintProgressChart(GraphicsContext gc) {
         gc.clearRect(0, 0, 300, 200);
-        gc.setStroke(darkMode ? Color.WHITE : Color.BLACK);
+        gc.setStroke(Theme.isDark() ? Color.WHITE : Color.BLACK);
         gc.strokeRect(50, 50, 200, 100);
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT progress FROM enrollments WHERE user_id = ? LIMIT 5")) {
-            stmt.setInt(1, loggedInUserId);
-            ResultSet rs = stmt.executeQuery();
-            int x = 60;
-            while (rs.next()) {
-                double progress = rs.getDouble("progress") * 100;
-                gc.strokeLine(x, 150, x, 150 - (int)progress);
-                x += 40;
-            }
-        } catch (SQLException e) {
-            LOGGER.severe("Chart data failed: " + e.getMessage());
+        int x = 60;
+        for (double value : chartValues) {
+            double progress = value * 100;
+            gc.strokeLine(x, 150, x, 150 - (int)progress);
+            x += 40;
         }
     }
 
-    private void applyStylesheet(Scene scene) {
-        URL stylesheet = getClass().getResource("/test/lms/styles.css");
-        if (stylesheet != null) {
-            scene.getStylesheets().add(stylesheet.toExternalForm());
-        } else {
-            System.err.println("❌ styles.css not found at /test/lms/styles.css");
-        }
+    private Button createThemeToggle() {
+        Button toggleMode = new Button(Theme.isDark() ? "Light Mode" : "Dark Mode");
+        toggleMode.setOnAction(e -> {
+            Theme.toggle();
+            toggleMode.setText(Theme.isDark() ? "Light Mode" : "Dark Mode");
+        });
+        return toggleMode;
     }
 
 
@@ -527,21 +512,17 @@ public class LMSApplication extends Application {
         MenuBar menuBar = new MenuBar();
 
         Menu fileMenu = new Menu("File");
-        fileMenu.setStyle("-fx-text-fill: white;");
         MenuItem exitItem = new MenuItem("Exit");
         exitItem.setOnAction(e -> primaryStage.close());
         fileMenu.getItems().add(exitItem);
 
         Menu helpMenu = new Menu("Help");
-        helpMenu.setStyle("-fx-text-fill: white;");
         MenuItem aboutItem = new MenuItem("About");
         aboutItem.setOnAction(e -> showAlert("About", "SmartLearn LMS is a desktop app built with JavaFX and PostgreSQL to simplify learning management. It offers secure logins for admins, instructors, and students with role-based features. Users can manage courses, submit assignments, and track progress through visual dashboards. The system supports real-time updates and reliable data storage. Developed using GitHub, it delivers a modern and interactive academic experience.\n"));
         helpMenu.getItems().add(aboutItem);
 
         Menu accountMenu = new Menu("Account");
-        accountMenu.setStyle("-fx-text-fill: white;");
         MenuItem logoutItem = new MenuItem("Logout");
-        logoutItem.setStyle("-fx-text-fill: white; -fx-font-size: 14px;");
         logoutItem.setOnAction(e -> {
             Alert confirmLogout = new Alert(Alert.AlertType.CONFIRMATION);
             confirmLogout.setTitle("Logout Confirmation");
@@ -549,10 +530,13 @@ public class LMSApplication extends Application {
             confirmLogout.setContentText("You will be returned to the login screen.");
             confirmLogout.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
+                    dataService.cancelAll();
                     logAudit("Logout", "User " + loggedInUser + " logged out");
                     loggedInUser = null;
                     userRole = null;
                     loggedInUserId = 0;
+                    session = null;
+                    router.clear();
                     showLoginScreen();
                 }
             });
@@ -564,139 +548,82 @@ public class LMSApplication extends Application {
     }
 
     private void loadItems() {
-        items.clear();
-        try {
-            if (userRole.equals("admin")) {
-                try (Statement stmt = connection.createStatement()) {
-                    ResultSet rs = stmt.executeQuery("SELECT id, username, email, role FROM users");
-                    while (rs.next()) {
-                        items.add(new User(rs.getInt("id"), rs.getString("username"), rs.getString("email"), rs.getString("role")));
-                    }
-                }
-            } else if (userRole.equals("instructor")) {
-                try (PreparedStatement stmt = connection.prepareStatement("SELECT id, course_name, description, progress FROM courses WHERE instructor_id = ?")) {
-                    stmt.setInt(1, loggedInUserId);
-                    ResultSet rs = stmt.executeQuery();
-                    while (rs.next()) {
-                        items.add(new Course(rs.getInt("id"), rs.getString("course_name"), rs.getString("description"), loggedInUserId, rs.getDouble("progress")));
-                    }
-                }
-            } else if (userRole.equals("student")) {
-                try (PreparedStatement stmt = connection.prepareStatement("SELECT c.id, c.course_name, c.description, c.instructor_id, e.progress FROM courses c JOIN enrollments e ON c.id = e.course_id WHERE e.user_id = ?")) {
-                    stmt.setInt(1, loggedInUserId);
-                    ResultSet rs = stmt.executeQuery();
-                    while (rs.next()) {
-                        items.add(new Course(rs.getInt("id"), rs.getString("course_name"), rs.getString("description"), rs.getInt("instructor_id"), rs.getDouble("progress")));
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            showAlert("Database Error", "Failed to load items: " + e.getMessage());
-            LOGGER.severe("Load items failed: " + e.getMessage());
-        }
-    }
-
-    private VBox createPage(int pageIndex) {
-        VBox pageBox = new VBox(10);
-        pageBox.setPadding(new Insets(10));
-        updateTheme(pageBox);
-        int start = pageIndex * ITEMS_PER_PAGE;
-        int end = Math.min(start + ITEMS_PER_PAGE, items.size());
-
-        for (int i = start; i < end; i++) {
-            Object item = items.get(i);
-            VBox itemBox = new VBox(5);
-            updateTheme(itemBox);
-            itemBox.setOnMouseEntered(e -> itemBox.setStyle(darkMode ? "-fx-background-color: #4f545c;" : "-fx-background-color: #e8f0fe;"));
-            itemBox.setOnMouseExited(e -> updateTheme(itemBox));
-
-            if (item instanceof Course course) {
-                itemBox.setUserData(course.getId());
-                Label nameLabel = new Label(course.getName());
-                nameLabel.setFont(new Font("Arial", 16));
-                nameLabel.setTextFill(darkMode ? Color.WHITE : Color.web("#3f51b5"));
-
-                Label descLabel = new Label(course.getDescription());
-                descLabel.setFont(new Font("Arial", 12));
-                descLabel.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
-
-                ProgressBar progressBar = new ProgressBar(course.getProgress());
-                progressBar.setPrefWidth(200);
-                progressBar.setStyle("-fx-accent: " + (darkMode ? "#7289da" : "#4CAF50") + ";");
-
-                itemBox.getChildren().addAll(nameLabel, descLabel, progressBar);
-                if (userRole.equals("student")) {
-                    Button viewContent = new Button("View Content");
-                    viewContent.setOnAction(e -> viewCourseContent(course.getId()));
-                    itemBox.getChildren().add(viewContent);
-                } else if (userRole.equals("instructor")) {
-                    Button manageContent = new Button("Manage Content");
-                    manageContent.setOnAction(e -> manageCourseContent(course.getId()));
-                    itemBox.getChildren().add(manageContent);
-                }
-            } else if (item instanceof User user) {
-                itemBox.setUserData(user.getId());
-                Label nameLabel = new Label(user.getUsername());
-                nameLabel.setFont(new Font("Arial", 16));
-                nameLabel.setTextFill(darkMode ? Color.WHITE : Color.web("#3f51b5"));
-                itemBox.getChildren().add(nameLabel);
+        // Students and instructors page over the session's course list; only the admin user list is paged from the database
+        ItemPageSource source = userRole.equals("admin")
+                ? new ItemPageSource(dataService, userRole, loggedInUserId, ITEMS_PER_FETCH)
+                : new ItemPageSource(session.courses(), ITEMS_PER_FETCH);
+        itemPages = source;
+        ListView<Object> list = itemList;
+        list.setPlaceholder(new ProgressIndicator());
+        source.page(0); // the first page loads alongside the count
+        deliver(source.countItems(), count -> {
+            if (itemPages == source) {
+                list.setPlaceholder(new Label("Nothing here yet"));
+                list.setItems(new PagedItemList(source, count, error -> {
+                    showAlert("Database Error", "Failed to load items: " + error.getMessage());
+                    LOGGER.severe("Failed to load items: " + error.getMessage());
+                }));
             }
-            pageBox.getChildren().add(itemBox);
-        }
-        return pageBox;
+        }, "Failed to load items", () -> list.setPlaceholder(new Label("Items could not be loaded")));
     }
 
     private HBox createActionButtons() {
         HBox buttonBox = new HBox(10);
         buttonBox.setAlignment(Pos.CENTER);
         buttonBox.setPadding(new Insets(20));
-        updateTheme(buttonBox);
 
         if (userRole.equals("admin")) {
             Button addUser = new Button("Add User");
-            addUser.setStyle("-fx-background-color: " + (darkMode ? "#7289da" : "#4CAF50") + "; -fx-text-fill: white;");
+            addUser.getStyleClass().add("action");
             addUser.setEffect(new DropShadow(10, Color.GRAY));
             addUser.setOnAction(e -> addUser());
             buttonBox.getChildren().add(addUser);
+
+            Button importUsers = new Button("Import Users");
+            importUsers.getStyleClass().add("action");
+            importUsers.setEffect(new DropShadow(10, Color.GRAY));
+            importUsers.setOnAction(e -> importUsers());
+            buttonBox.getChildren().add(importUsers);
+
+            Button dbPerformance = new Button("Database Performance");
+            dbPerformance.getStyleClass().add("action");
+            dbPerformance.setEffect(new DropShadow(10, Color.GRAY));
+            dbPerformance.setOnAction(e -> showDatabasePerformance());
+            buttonBox.getChildren().add(dbPerformance);
         } else if (userRole.equals("instructor")) {
             Button addCourse = new Button("Add Course");
-            addCourse.setStyle("-fx-background-color: " + (darkMode ? "#7289da" : "#4CAF50") + "; -fx-text-fill: white;");
+            addCourse.getStyleClass().add("action");
             addCourse.setEffect(new DropShadow(10, Color.GRAY));
             addCourse.setOnAction(e -> addCourse());
             buttonBox.getChildren().add(addCourse);
 
             Button addAssignment = new Button("Add Assignment");
-            addAssignment.setStyle("-fx-background-color: " + (darkMode ? "#7289da" : "#4CAF50") + "; -fx-text-fill: white;");
+            addAssignment.getStyleClass().add("action");
             addAssignment.setEffect(new DropShadow(6, Color.GRAY));
             addAssignment.setOnAction(e -> addAssignment());
             buttonBox.getChildren().add(addAssignment);
         } else if (userRole.equals("student")) {
             Button enroll = new Button("Enroll in Course");
-            enroll.setStyle("-fx-background-color: " + (darkMode ? "#7289da" : "#4CAF50") + "; -fx-text-fill: white; -fx-padding: 10px 20px; -fx-background-radius: 5; -fx-cursor: hand;");
+            enroll.getStyleClass().addAll("action", "action-large");
             enroll.setEffect(new DropShadow(6, Color.GRAY));
             enroll.setOnAction(e -> enrollInCourse());
             buttonBox.getChildren().add(enroll);
 
             Button submitAssignment = new Button("Submit Assignment");
-            submitAssignment.setStyle("-fx-background-color: " + (darkMode ? "#7289da" : "#4CAF50") + "; -fx-text-fill: white; -fx-padding: 10px 20px; -fx-background-radius: 5; -fx-cursor: hand;");
+            submitAssignment.getStyleClass().addAll("action", "action-large");
             submitAssignment.setEffect(new DropShadow(6, Color.GRAY));
             submitAssignment.setOnAction(e -> submitAssignment());
             buttonBox.getChildren().add(submitAssignment);
 
             Button viewScores = new Button("View Scores");
-            viewScores.setStyle("-fx-background-color: " + (darkMode ? "#ff9800" : "#ff9800") + "; -fx-text-fill: white; -fx-padding: 10px 20px; -fx-background-radius: 5; -fx-cursor: hand;");
+            viewScores.getStyleClass().addAll("orange", "action-large");
             viewScores.setEffect(new DropShadow(6, Color.GRAY));
             viewScores.setOnAction(e -> viewScores());
             buttonBox.getChildren().add(viewScores);
         }
 
         Button notify = new Button("Check Notifications");
-        FadeTransition fade = new FadeTransition(Duration.millis(2000), notify);
-        fade.setFromValue(1.0);
-        fade.setToValue(0.3);
-        fade.setCycleCount(FadeTransition.INDEFINITE);
-        fade.setAutoReverse(true);
-        fade.play();
+        AnimationGovernor.pulse(notify, Duration.millis(2000), 1.0, 0.3);
         notify.setOnAction(e -> showNotifications());
         buttonBox.getChildren().add(notify);
 
@@ -720,20 +647,106 @@ public class LMSApplication extends Application {
         grid.addRow(3, new Label("Role:"), role);
         dialog.getDialogPane().setContent(grid);
         dialog.setResultConverter(btn -> btn.getButtonData() == ButtonBar.ButtonData.OK_DONE ? new User(0, username.getText(), email.getText(), role.getValue()) : null);
-        dialog.showAndWait().ifPresent(user -> {
-            try (PreparedStatement stmt = connection.prepareStatement("INSERT INTO users (username, email, password_hash, role) VALUES (?, ?, ?, ?)")) {
-                stmt.setString(1, user.getUsername());
-                stmt.setString(2, user.getEmail());
-                stmt.setString(3, BCrypt.hashpw(password.getText(), BCrypt.gensalt()));
-                stmt.setString(4, user.getRole());
-                stmt.executeUpdate();
-                loadItems(); refreshPagination();
-                showAlert("Success", "User added!");
-            } catch (SQLException e) {
-                showAlert("Error", e.getMessage());
-                LOGGER.severe("Add user failed: " + e.getMessage());
+        dialog.showAndWait().ifPresent(user -> deliver(dataService.addUser(user.getUsername(), user.getEmail(), password.getText(), user.getRole()), done -> {
+            loadItems();
+            showAlert("Success", "User added!");
+        }, "Add user failed"));
+    }
+
+    private void importUsers() {
+        if (!userRole.equals("admin")) return;
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Users (username,email,password,role)");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+                new FileChooser.ExtensionFilter("All Files", "*.*"));
+        File file = fileChooser.showOpenDialog(primaryStage);
+        if (file == null) return;
+
+        Stage progressStage = new Stage();
+        progressStage.initOwner(primaryStage);
+        progressStage.setTitle("Importing " + file.getName());
+        ProgressIndicator spinner = new ProgressIndicator();
+        Label status = new Label("Reading " + file.getName() + "...");
+        VBox box = new VBox(10, spinner, status);
+        box.setAlignment(Pos.CENTER);
+        box.setPadding(new Insets(20));
+        progressStage.setScene(new Scene(box, 320, 160));
+        progressStage.show();
+
+        CompletableFuture<UserImporter.Result> importing = dataService.importUsers(file.toPath(),
+                progress -> Platform.runLater(() -> status.setText(String.format("Read %d lines: %d imported, %d rejected",
+                        progress.read(), progress.imported(), progress.rejected()))));
+        progressStage.setOnCloseRequest(e -> importing.cancel(true));
+        deliver(importing, result -> {
+            progressStage.close();
+            logAudit("Bulk Import", "User " + loggedInUser + " imported " + result.imported() + " users from " + file.getName());
+            StringBuilder summary = new StringBuilder(String.format("Imported %d users in %.1f s, %d rejected.",
+                    result.imported(), result.millis() / 1000.0, result.rejected()));
+            result.rejects().stream().limit(20).forEach(reject -> summary.append("\nLine ").append(reject.line()).append(": ").append(reject.reason()));
+            if (result.rejected() > 20) {
+                summary.append("\n...");
             }
+            loadItems();
+            showAlert("Import Finished", summary.toString());
+        }, "User import failed", progressStage::close);
+    }
+
+    private void showDatabasePerformance() {
+        if (!userRole.equals("admin")) return;
+        Stage stage = new Stage();
+        stage.initOwner(primaryStage);
+        stage.setTitle("Database Performance");
+
+        TableView<QueryMetrics.QueryStat> table = new TableView<>();
+        table.setPlaceholder(new Label(QueryMetrics.ENABLED ? "No queries recorded yet" : "Query statistics are off (DB_METRICS=off)"));
+        TableColumn<QueryMetrics.QueryStat, String> sqlCol = new TableColumn<>("Query");
+        sqlCol.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty(cell.getValue().sql()));
+        sqlCol.setPrefWidth(420);
+        table.getColumns().add(sqlCol);
+        table.getColumns().add(statColumn("Calls", stat -> String.valueOf(stat.calls())));
+        table.getColumns().add(statColumn("Errors", stat -> String.valueOf(stat.errors())));
+        table.getColumns().add(statColumn("Rows", stat -> String.valueOf(stat.rows())));
+        table.getColumns().add(statColumn("Total ms", stat -> String.format("%.1f", stat.totalMillis())));
+        table.getColumns().add(statColumn("p50 ms", stat -> String.format("%.2f", stat.p50Millis())));
+        table.getColumns().add(statColumn("p95 ms", stat -> String.format("%.2f", stat.p95Millis())));
+        table.getColumns().add(statColumn("p99 ms", stat -> String.format("%.2f", stat.p99Millis())));
+        table.getColumns().add(statColumn("Max ms", stat -> String.format("%.2f", stat.maxMillis())));
+
+        Label poolStats = new Label();
+        poolStats.setWrapText(true);
+        Runnable refresh = () -> {
+            table.getItems().setAll(QueryMetrics.snapshot());
+            poolStats.setText("Connection pool: " + (pool != null ? pool.getStats() : "not started")
+                    + "\nBackground tasks: " + BackgroundExecutor.getStats()
+                    + "\nAnimations: " + AnimationGovernor.getStats());
+        };
+        refresh.run();
+
+        Button refreshButton = new Button("Refresh");
+        refreshButton.setOnAction(e -> refresh.run());
+        Button resetButton = new Button("Reset");
+        resetButton.setOnAction(e -> {
+            QueryMetrics.reset();
+            refresh.run();
         });
+        HBox buttons = new HBox(10, refreshButton, resetButton);
+
+        VBox layout = new VBox(10, poolStats, table, buttons);
+        layout.getStyleClass().add("root");
+        layout.setPadding(new Insets(20));
+        VBox.setVgrow(table, Priority.ALWAYS);
+        Scene scene = new Scene(layout, 1000, 600);
+        Theme.install(scene);
+        stage.setScene(scene);
+        stage.show();
+    }
+
+    private static TableColumn<QueryMetrics.QueryStat, String> statColumn(String title, Function<QueryMetrics.QueryStat, String> value) {
+        TableColumn<QueryMetrics.QueryStat, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty(value.apply(cell.getValue())));
+        column.setStyle("-fx-alignment: CENTER-RIGHT;");
+        return column;
     }
 
     private void addCourse() {
@@ -749,24 +762,23 @@ public class LMSApplication extends Application {
         grid.addRow(1, new Label("Description:"), desc);
         dialog.getDialogPane().setContent(grid);
         dialog.setResultConverter(btn -> btn.getButtonData() == ButtonBar.ButtonData.OK_DONE ? new Course(0, name.getText(), desc.getText(), loggedInUserId, 0.0) : null);
-        dialog.showAndWait().ifPresent(course -> {
-            try (PreparedStatement stmt = connection.prepareStatement("INSERT INTO courses (course_name, description, instructor_id, progress) VALUES (?, ?, ?, ?)")) {
-                stmt.setString(1, course.getName());
-                stmt.setString(2, course.getDescription());
-                stmt.setInt(3, loggedInUserId);
-                stmt.setDouble(4, course.getProgress());
-                stmt.executeUpdate();
-                loadItems(); refreshPagination();
-                showAlert("Success", "Course added!");
-            } catch (SQLException e) {
-                showAlert("Error", e.getMessage());
-                LOGGER.severe("Add course failed: " + e.getMessage());
-            }
-        });
+        dialog.showAndWait().ifPresent(course -> deliver(dataService.addCourse(course.getName(), course.getDescription(), loggedInUserId, course.getProgress()), done -> {
+            session.courseAdded();
+            loadItems();
+            showAlert("Success", "Course added!");
+        }, "Add course failed"));
     }
 
     private void addAssignment() {
         if (!userRole.equals("instructor")) return;
+        deliver(session.courses(), this::showAddAssignmentDialog, "Failed to load courses");
+    }
+
+    private void showAddAssignmentDialog(List<Course> courses) {
+        if (courses.isEmpty()) {
+            showAlert("Error", "No courses available to assign.");
+            return;
+        }
         Dialog<Assignment> dialog = new Dialog<>();
         dialog.setTitle("Add Assignment");
         dialog.getDialogPane().getButtonTypes().addAll(new ButtonType("Add", ButtonBar.ButtonData.OK_DONE), ButtonType.CANCEL);
@@ -778,24 +790,10 @@ public class LMSApplication extends Application {
         TextField maxScore = new TextField(); maxScore.setPromptText("Max Score");
         DatePicker deadline = new DatePicker();
 
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT id, course_name FROM courses WHERE instructor_id = ?")) {
-            stmt.setInt(1, loggedInUserId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                String name = rs.getString("course_name");
-                courseChoice.getItems().add(id + " - " + name);
-            }
-            if (courseChoice.getItems().isEmpty()) {
-                showAlert("Error", "No courses available to assign.");
-                return;
-            }
-            courseChoice.setValue(courseChoice.getItems().get(0));
-        } catch (SQLException e) {
-            showAlert("Database Error", "Failed to load courses: " + e.getMessage());
-            LOGGER.severe("Load courses failed: " + e.getMessage());
-            return;
+        for (Course course : courses) {
+            courseChoice.getItems().add(course.getId() + " - " + course.getName());
         }
+        courseChoice.setValue(courseChoice.getItems().get(0));
 
         grid.addRow(0, new Label("Course:"), courseChoice);
         grid.addRow(1, new Label("Title:"), title);
@@ -816,39 +814,25 @@ public class LMSApplication extends Application {
             }
             return null;
         });
-        dialog.showAndWait().ifPresent(assignment -> {
-            try (PreparedStatement stmt = connection.prepareStatement("INSERT INTO assignments (course_id, title, description, max_score, deadline) VALUES (?, ?, ?, ?, ?)")) {
-                stmt.setInt(1, assignment.courseId);
-                stmt.setString(2, assignment.getTitle());
-                stmt.setString(3, assignment.getDescription());
-                stmt.setDouble(4, assignment.maxScore);
-                stmt.setTimestamp(5, assignment.deadline);
-                stmt.executeUpdate();
-                showAlert("Success", "Assignment added!");
-            } catch (SQLException e) {
-                showAlert("Error", e.getMessage());
-                LOGGER.severe("Add assignment failed: " + e.getMessage());
-            }
-        });
+        dialog.showAndWait().ifPresent(assignment -> deliver(dataService.addAssignment(assignment),
+                done -> {
+                    session.assignmentAdded();
+                    showAlert("Success", "Assignment added!");
+                }, "Add assignment failed"));
     }
 
     private void enrollInCourse() {
         if (!userRole.equals("student")) return;
+        deliver(session.enrollmentOptions(), this::showEnrollDialog, "Failed to check enrollments");
+    }
 
-        int enrollmentCount = 0;
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT COUNT(*) FROM enrollments WHERE user_id = ?")) {
-            stmt.setInt(1, loggedInUserId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                enrollmentCount = rs.getInt(1);
-            }
-            if (enrollmentCount >= 6) {
-                showAlert("Enrollment Limit Reached", "You cannot enroll in more than 6 courses.");
-                return;
-            }
-        } catch (SQLException e) {
-            showAlert("Database Error", "Failed to check enrollments: " + e.getMessage());
-            LOGGER.severe("Check enrollments failed: " + e.getMessage());
+    private void showEnrollDialog(LmsDataService.EnrollmentOptions options) {
+        if (options.enrolledCount() >= 6) {
+            showAlert("Enrollment Limit Reached", "You cannot enroll in more than 6 courses.");
+            return;
+        }
+        if (options.available().isEmpty()) {
+            showAlert("Error", "No available courses to enroll in.");
             return;
         }
 
@@ -861,27 +845,11 @@ public class LMSApplication extends Application {
         grid.setPadding(new Insets(20));
         ChoiceBox<String> courseChoice = new ChoiceBox<>();
 
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT id, course_name FROM courses WHERE id NOT IN (SELECT course_id FROM enrollments WHERE user_id = ?)")) {
-            stmt.setInt(1, loggedInUserId);
-            ResultSet rs = stmt.executeQuery();
-            if (!rs.isBeforeFirst()) {
-                showAlert("Error", "No available courses to enroll in.");
-                return;
-            }
-            while (rs.next()) {
-                int courseId = rs.getInt("id");
-                String courseName = rs.getString("course_name");
-                String displayText = String.format("Course ID: %d - %s", courseId, courseName);
-                courseChoice.getItems().add(displayText);
-            }
-            if (!courseChoice.getItems().isEmpty()) {
-                courseChoice.setValue(courseChoice.getItems().get(0));
-            }
-        } catch (SQLException e) {
-            showAlert("Database Error", "Failed to load available courses: " + e.getMessage());
-            LOGGER.severe("Load available courses failed: " + e.getMessage());
-            return;
+        for (Course course : options.available()) {
+            String displayText = String.format("Course ID: %d - %s", course.getId(), course.getName());
+            courseChoice.getItems().add(displayText);
         }
+        courseChoice.setValue(courseChoice.getItems().get(0));
 
         grid.addRow(0, new Label("Course:"), courseChoice);
         dialog.getDialogPane().setContent(grid);
@@ -894,23 +862,23 @@ public class LMSApplication extends Application {
             }
             return null;
         });
-        dialog.showAndWait().ifPresent(courseIdValue -> {
-            try (PreparedStatement stmt = connection.prepareStatement("INSERT INTO enrollments (user_id, course_id, progress) VALUES (?, ?, 0.0)")) {
-                stmt.setInt(1, loggedInUserId);
-                stmt.setInt(2, courseIdValue);
-                stmt.executeUpdate();
-                loadItems();
-                refreshPagination();
-                showAlert("Success", "Enrolled in course!");
-            } catch (SQLException e) {
-                showAlert("Error", e.getMessage());
-                LOGGER.severe("Enroll failed: " + e.getMessage());
-            }
-        });
+        dialog.showAndWait().ifPresent(courseIdValue -> deliver(dataService.enroll(loggedInUserId, courseIdValue), done -> {
+            session.enrolled();
+            loadItems();
+            showAlert("Success", "Enrolled in course!");
+        }, "Enroll failed"));
     }
 
     private void submitAssignment() {
         if (!userRole.equals("student")) return;
+        deliver(session.openAssignments(), this::showSubmitDialog, "Fetch assignments failed");
+    }
+
+    private void showSubmitDialog(List<LmsDataService.OpenAssignment> openAssignments) {
+        if (openAssignments.isEmpty()) {
+            showAlert("Error", "No available assignments to submit (either past deadline or already submitted).");
+            return;
+        }
 
         Dialog<Submission> dialog = new Dialog<>();
         dialog.setTitle("Submit Assignment");
@@ -933,7 +901,6 @@ public class LMSApplication extends Application {
         Button attachFileButton = new Button("Choose File");
         attachFileButton.setDisable(true);
         Label fileNameLabel = new Label("No file selected");
-        fileNameLabel.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
 
         fileRadio.setOnAction(e -> {
             content.setDisable(true);
@@ -960,35 +927,11 @@ public class LMSApplication extends Application {
             }
         });
 
-        try (PreparedStatement stmt = connection.prepareStatement(
-                "SELECT a.id, a.title, c.id AS course_id, c.course_name " +
-                        "FROM assignments a " +
-                        "JOIN courses c ON a.course_id = c.id " +
-                        "WHERE a.course_id IN (SELECT course_id FROM enrollments WHERE user_id = ?) AND a.deadline > NOW() " +
-                        "AND NOT EXISTS (SELECT 1 FROM submissions s WHERE s.assignment_id = a.id AND s.student_id = ?)")) {
-            stmt.setInt(1, loggedInUserId);
-            stmt.setInt(2, loggedInUserId);
-            ResultSet rs = stmt.executeQuery();
-            if (!rs.isBeforeFirst()) {
-                showAlert("Error", "No available assignments to submit (either past deadline or already submitted).");
-                return;
-            }
-            while (rs.next()) {
-                int assignmentId = rs.getInt("id");
-                String assignmentTitle = rs.getString("title");
-                int courseId = rs.getInt("course_id");
-                String courseName = rs.getString("course_name");
-                String displayText = String.format("Course: %d - %s Assignment: %d - %s", courseId, courseName, assignmentId, assignmentTitle);
-                assignmentChoice.getItems().add(displayText);
-            }
-            if (!assignmentChoice.getItems().isEmpty()) {
-                assignmentChoice.setValue(assignmentChoice.getItems().get(0));
-            }
-        } catch (SQLException e) {
-            showAlert("Error", e.getMessage());
-            LOGGER.severe("Fetch assignments failed: " + e.getMessage());
-            return;
+        for (LmsDataService.OpenAssignment open : openAssignments) {
+            String displayText = String.format("Course: %d - %s Assignment: %d - %s", open.courseId(), open.courseName(), open.assignmentId(), open.title());
+            assignmentChoice.getItems().add(displayText);
         }
+        assignmentChoice.setValue(assignmentChoice.getItems().get(0));
 
         grid.addRow(0, new Label("Assignment:"), assignmentChoice);
         grid.addRow(1, new Label("Submission Type:"), typeRadio, fileRadio);
@@ -1018,120 +961,100 @@ public class LMSApplication extends Application {
             }
             return null;
         });
-        dialog.showAndWait().ifPresent(submission -> {
-            try (PreparedStatement insertStmt = connection.prepareStatement("INSERT INTO submissions (assignment_id, student_id, content, file_name) VALUES (?, ?, ?, ?)")) {
-                insertStmt.setInt(1, submission.getAssignmentId());
-                insertStmt.setInt(2, submission.getStudentId());
-                insertStmt.setString(3, submission.getContent());
-                insertStmt.setString(4, submission.getFileName());
-                insertStmt.executeUpdate();
-                logAudit("Submission", "User " + loggedInUser + " submitted assignment " + submission.getAssignmentId());
-                showAlert("Success", "Assignment submitted!");
-            } catch (SQLException e) {
-                showAlert("Error", e.getMessage());
-                LOGGER.severe("Submit assignment failed: " + e.getMessage());
-            }
-        });
+        dialog.showAndWait().ifPresent(submission -> deliver(dataService.submitAssignment(submission), done -> {
+            session.submitted();
+            logAudit("Submission", "User " + loggedInUser + " submitted assignment " + submission.getAssignmentId());
+            showAlert("Success", "Assignment submitted!");
+        }, "Submit assignment failed"));
     }
 
     private void viewCourseContent(int courseId) {
+        router.show("content:" + courseId, 600, 400, () -> createCourseContentScreen(courseId));
+    }
+
+    private ScreenRouter.Screen createCourseContentScreen(int courseId) {
         VBox contentLayout = new VBox(10);
         contentLayout.getStyleClass().add("root");
         contentLayout.setPadding(new Insets(20));
-        updateTheme(contentLayout);
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT title, description FROM assignments WHERE course_id = ?")) {
-            stmt.setInt(1, courseId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                Label title = new Label(rs.getString("title"));
-                title.setFont(new Font("Arial", 16));
-                title.setTextFill(darkMode ? Color.WHITE : Color.web("#3f51b5"));
-                Label desc = new Label(rs.getString("description"));
-                desc.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
-                contentLayout.getChildren().addAll(title, desc);
-            }
-        } catch (SQLException e) {
-            showAlert("Error", e.getMessage());
-            LOGGER.severe("Load content failed: " + e.getMessage());
-        }
+        VBox assignmentList = new VBox(10);
+        Runnable refresh = () -> {
+            ProgressIndicator loading = new ProgressIndicator();
+            assignmentList.getChildren().setAll(loading);
+            deliver(session.courseAssignments(courseId), assignments -> {
+                List<Node> rows = new ArrayList<>(assignments.size() * 2);
+                for (Assignment assignment : assignments) {
+                    Label title = new Label(assignment.getTitle());
+                    title.setFont(new Font("Arial", 16));
+                    title.getStyleClass().add("heading");
+                    rows.add(title);
+                    rows.add(new Label(assignment.getDescription()));
+                }
+                assignmentList.getChildren().setAll(rows);
+            }, "Load content failed", () -> assignmentList.getChildren().remove(loading));
+        };
+        refresh.run();
         Button back = new Button("Back");
-        back.setStyle("-fx-background-color: " + (darkMode ? "#7289da" : "#4CAF50") + "; -fx-text-fill: white;");
-        back.setOnAction(e -> primaryStage.setScene(mainScene));
-        contentLayout.getChildren().add(back);
-        Scene contentScene = new Scene(contentLayout, 600, 400);
-        applyStylesheet(contentScene);
-        primaryStage.setScene(contentScene);
+        back.getStyleClass().add("action");
+        back.setOnAction(e -> showMainScreen());
+        contentLayout.getChildren().addAll(assignmentList, back);
+        return new ScreenRouter.Screen(contentLayout, refresh);
     }
 
     private void manageCourseContent(int courseId) {
+        router.show("manage:" + courseId, 800, 500, () -> createManageContentScreen(courseId));
+    }
+
+    private ScreenRouter.Screen createManageContentScreen(int courseId) {
         VBox contentLayout = new VBox(10);
         contentLayout.getStyleClass().add("root");
         contentLayout.setPadding(new Insets(20));
-        updateTheme(contentLayout);
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT id, title, description, max_score, deadline FROM assignments WHERE course_id = ?")) {
-            stmt.setInt(1, courseId);
-            ResultSet rs = stmt.executeQuery();
-            TableView<Assignment> table = new TableView<>();
-            table.setPrefHeight(300);
-            TableColumn<Assignment, String> titleCol = new TableColumn<>("Title");
-            titleCol.setCellValueFactory(new PropertyValueFactory<>("title"));
-            TableColumn<Assignment, String> descCol = new TableColumn<>("Description");
-            descCol.setCellValueFactory(new PropertyValueFactory<>("description"));
-            TableColumn<Assignment, Double> scoreCol = new TableColumn<>("Max Score");
-            scoreCol.setCellValueFactory(new PropertyValueFactory<>("maxScore"));
-            TableColumn<Assignment, Timestamp> deadlineCol = new TableColumn<>("Deadline");
-            deadlineCol.setCellValueFactory(new PropertyValueFactory<>("deadline"));
-            table.getColumns().addAll(titleCol, descCol, scoreCol, deadlineCol);
-            while (rs.next()) {
-                table.getItems().add(new Assignment(rs.getInt("id"), courseId, rs.getString("title"), rs.getString("description"), rs.getDouble("max_score"), rs.getTimestamp("deadline")));
-            }
-            contentLayout.getChildren().add(table);
-
-            Button grade = new Button("Grade Submissions");
-            grade.setEffect(new DropShadow(6, Color.GRAY));
-            grade.setOnAction(e -> gradeSubmissions(courseId));
-            contentLayout.getChildren().add(grade);
-        } catch (SQLException e) {
-            showAlert("Error", e.getMessage());
-            LOGGER.severe("Load content failed: " + e.getMessage());
-        }
+        TableView<Assignment> table = new TableView<>();
+        table.setPrefHeight(300);
+        TableColumn<Assignment, String> titleCol = new TableColumn<>("Title");
+        titleCol.setCellValueFactory(new PropertyValueFactory<>("title"));
+        TableColumn<Assignment, String> descCol = new TableColumn<>("Description");
+        descCol.setCellValueFactory(new PropertyValueFactory<>("description"));
+        TableColumn<Assignment, Double> scoreCol = new TableColumn<>("Max Score");
+        scoreCol.setCellValueFactory(new PropertyValueFactory<>("maxScore"));
+        TableColumn<Assignment, Timestamp> deadlineCol = new TableColumn<>("Deadline");
+        deadlineCol.setCellValueFactory(new PropertyValueFactory<>("deadline"));
+        table.getColumns().addAll(titleCol, descCol, scoreCol, deadlineCol);
+        Runnable refresh = () -> fillTable(table, session.courseAssignments(courseId), "Load content failed");
+        refresh.run();
+        contentLayout.getChildren().add(table);
+
+        Button grade = new Button("Grade Submissions");
+        grade.setEffect(new DropShadow(6, Color.GRAY));
+        grade.setOnAction(e -> gradeSubmissions(courseId));
+        contentLayout.getChildren().add(grade);
+
         Button back = new Button("Back");
-        back.setOnAction(e -> primaryStage.setScene(mainScene));
+        back.setOnAction(e -> showMainScreen());
         contentLayout.getChildren().add(back);
-        Scene contentScene = new Scene(contentLayout, 800, 500);
-        applyStylesheet(contentScene);
-        primaryStage.setScene(contentScene);
+        return new ScreenRouter.Screen(contentLayout, refresh);
     }
 
     private void gradeSubmissions(int courseId) {
+        router.show("grade:" + courseId, 1000, 600, () -> createGradeScreen(courseId));
+    }
+
+    private ScreenRouter.Screen createGradeScreen(int courseId) {
         VBox gradeLayout = new VBox(10);
         gradeLayout.getStyleClass().add("root");
         gradeLayout.setPadding(new Insets(20));
-        updateTheme(gradeLayout);
 
         Label titleLabel = new Label("Grade Submissions");
         titleLabel.setFont(new Font("Arial", 24));
-        titleLabel.setTextFill(darkMode ? Color.WHITE : Color.web("#3f51b5"));
+        titleLabel.getStyleClass().add("heading");
 
         TableView<Submission> table = new TableView<>();
         table.setPrefHeight(400);
 
         TableColumn<Submission, String> studentCol = new TableColumn<>("Student");
-        studentCol.setCellValueFactory(cell -> {
-            Submission s = cell.getValue();
-            try (PreparedStatement stmt = connection.prepareStatement("SELECT username FROM users WHERE id = ?")) {
-                stmt.setInt(1, s.getStudentId());
-                ResultSet rs = stmt.executeQuery();
-                if (rs.next()) {
-                    return new javafx.beans.property.SimpleStringProperty(rs.getString("username"));
-                }
-            } catch (SQLException e) {
-                LOGGER.severe("Fetch username failed: " + e.getMessage());
-            }
-            return new javafx.beans.property.SimpleStringProperty("(Unknown)");
-        });
+        // Names come with the submissions from their joined query; rendering never touches the database
+        studentCol.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty(cell.getValue().getStudentName() != null ? cell.getValue().getStudentName() : "(Unknown)"));
         TableColumn<Submission, String> assignmentCol = new TableColumn<>("Assignment");
-        assignmentCol.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty(cell.getValue().getId() > 0 ? "Assignment " + cell.getValue().getId() : "N/A"));
+        assignmentCol.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty(cell.getValue().getAssignmentTitle() != null ? cell.getValue().getAssignmentTitle() : "N/A"));
         TableColumn<Submission, String> contentCol = new TableColumn<>("Content");
         contentCol.setCellValueFactory(new PropertyValueFactory<>("content"));
         TableColumn<Submission, String> fileNameCol = new TableColumn<>("Attached File");
@@ -1146,13 +1069,8 @@ public class LMSApplication extends Application {
         });
 
         table.getColumns().addAll(studentCol, assignmentCol, contentCol, fileNameCol, scoreCol, actionCol);
-        table.setRowFactory(tv -> {
-            TableRow<Submission> row = new TableRow<>();
-            row.setStyle("-fx-background-color: " + (darkMode ? "#40444b" : "#f9f9f9") + "; -fx-border-color: " + (darkMode ? "#5d6066" : "#e0e0e0") + "; -fx-border-radius: 5;");
-            row.setOnMouseEntered(e -> row.setStyle("-fx-background-color: " + (darkMode ? "#4f545c" : "#e8f0fe") + "; -fx-border-color: " + (darkMode ? "#7289da" : "#4CAF50") + ";"));
-            row.setOnMouseExited(e -> row.setStyle("-fx-background-color: " + (darkMode ? "#40444b" : "#f9f9f9") + "; -fx-border-color: " + (darkMode ? "#5d6066" : "#e0e0e0") + ";"));
-            return row;
-        });
+        Runnable refresh = () -> fillTable(table, dataService.courseSubmissions(courseId), "Load submissions failed");
+        refresh.run();
 
         gradeLayout.getChildren().addAll(titleLabel, table);
 
@@ -1160,92 +1078,98 @@ public class LMSApplication extends Application {
         back.setEffect(new DropShadow(6, Color.GRAY));
         back.setOnAction(e -> manageCourseContent(courseId));
         gradeLayout.getChildren().add(back);
-
-        Scene gradeScene = new Scene(gradeLayout, 1000, 600);
-        applyStylesheet(gradeScene);
-        primaryStage.setScene(gradeScene);
+        return new ScreenRouter.Screen(gradeLayout, refresh);
     }
 
     private void showFeedbackPanel(Submission submission, int courseId) {
+        feedbackSubmission = submission;
+        feedbackCourseId = courseId;
+        router.show("feedback", 500, 500, this::createFeedbackScreen);
+    }
+
+    // One panel for every submission; refresh binds the current feedbackSubmission into it.
+    private ScreenRouter.Screen createFeedbackScreen() {
         VBox feedbackPanel = new VBox(20);
         feedbackPanel.getStyleClass().add("root");
         feedbackPanel.setPadding(new Insets(20));
-        updateTheme(feedbackPanel);
 
-        Label panelTitle = new Label("Grade Submission #" + submission.getId());
+        Label panelTitle = new Label();
         panelTitle.setFont(new Font("Arial", 20));
-        panelTitle.setTextFill(darkMode ? Color.WHITE : Color.web("#3f51b5"));
+        panelTitle.getStyleClass().add("heading");
 
-        TextArea contentView = new TextArea(submission.getContent());
+        TextArea contentView = new TextArea();
         contentView.setEditable(false);
         contentView.setPrefHeight(150);
 
-        Label fileNameLabel = new Label("Attached File: " + (submission.getFileName() != null ? submission.getFileName() : "None"));
-        fileNameLabel.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
+        Label fileNameLabel = new Label();
 
         Label scoreLabel = new Label("Score:");
-        scoreLabel.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
-        TextField scoreField = new TextField(submission.getScore() != null ? String.valueOf(submission.getScore()) : "");
+        TextField scoreField = new TextField();
         scoreField.setPrefWidth(100);
 
         Label feedbackLabel = new Label("Feedback:");
-        feedbackLabel.setTextFill(darkMode ? Color.WHITE : Color.BLACK);
-        TextArea feedbackField = new TextArea(submission.getFeedback() != null ? submission.getFeedback() : "");
+        TextArea feedbackField = new TextArea();
         feedbackField.setPrefHeight(100);
 
         HBox buttonBox = new HBox(10);
         buttonBox.setAlignment(Pos.CENTER_RIGHT);
         Button submitButton = new Button("Submit Feedback");
         submitButton.setOnAction(e -> {
+            Submission submission = feedbackSubmission;
+            int courseId = feedbackCourseId;
             try {
                 double score = Double.parseDouble(scoreField.getText().trim());
                 String feedback = feedbackField.getText().trim();
-                try (PreparedStatement updateStmt = connection.prepareStatement("UPDATE submissions SET score = ?, feedback = ? WHERE id = ?")) {
-                    updateStmt.setDouble(1, score);
-                    updateStmt.setString(2, feedback);
-                    updateStmt.setInt(3, submission.getId());
-                    updateStmt.executeUpdate();
+                submitButton.setDisable(true);
+                deliver(dataService.gradeSubmission(submission.getId(), score, feedback), done -> {
+                    submitButton.setDisable(false);
                     logAudit("Grading", "User " + loggedInUser + " graded submission " + submission.getId());
                     showAlert("Success", "Feedback submitted!");
                     gradeSubmissions(courseId);
-                } catch (SQLException ex) {
-                    showAlert("Error", ex.getMessage());
-                    LOGGER.severe("Update feedback failed: " + ex.getMessage());
-                }
+                }, "Update feedback failed", () -> submitButton.setDisable(false));
             } catch (NumberFormatException ex) {
                 showAlert("Error", "Invalid score format");
             }
         });
 
         Button cancelButton = new Button("Cancel");
-        cancelButton.setOnAction(e -> gradeSubmissions(courseId));
+        cancelButton.setOnAction(e -> gradeSubmissions(feedbackCourseId));
 
         buttonBox.getChildren().addAll(cancelButton, submitButton);
         feedbackPanel.getChildren().addAll(panelTitle, contentView, fileNameLabel, scoreLabel, scoreField, feedbackLabel, feedbackField, buttonBox);
 
-        Scene feedbackScene = new Scene(feedbackPanel, 500, 500);
-        applyStylesheet(feedbackScene);
-        primaryStage.setScene(feedbackScene);
+        Runnable refresh = () -> {
+            Submission submission = feedbackSubmission;
+            panelTitle.setText("Grade Submission #" + submission.getId());
+            contentView.setText(submission.getContent());
+            fileNameLabel.setText("Attached File: " + (submission.getFileName() != null ? submission.getFileName() : "None"));
+            scoreField.setText(submission.getScore() != null ? String.valueOf(submission.getScore()) : "");
+            feedbackField.setText(submission.getFeedback() != null ? submission.getFeedback() : "");
+        };
+        refresh.run();
+        return new ScreenRouter.Screen(feedbackPanel, refresh);
     }
 
     private void viewScores() {
         if (!userRole.equals("student")) return;
+        router.show("scores", 800, 600, this::createScoresScreen);
+    }
 
+    private ScreenRouter.Screen createScoresScreen() {
         VBox scoresLayout = new VBox(10);
         scoresLayout.getStyleClass().add("root");
         scoresLayout.setPadding(new Insets(20));
-        updateTheme(scoresLayout);
 
         Label titleLabel = new Label("My Scores and Feedback");
         titleLabel.setFont(new Font("Arial", 24));
-        titleLabel.setTextFill(darkMode ? Color.WHITE : Color.web("#ff9800"));
+        titleLabel.getStyleClass().add("heading-accent");
 
         TableView<Submission> table = new TableView<>();
         table.setPrefHeight(400);
         table.setStyle("-fx-background-color: transparent; -fx-table-cell-border-color: transparent;");
 
         TableColumn<Submission, String> assignmentCol = new TableColumn<>("Assignment");
-        assignmentCol.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty(cell.getValue().getId() > 0 ? "Assignment " + cell.getValue().getId() : "N/A"));
+        assignmentCol.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty(cell.getValue().getAssignmentTitle() != null ? cell.getValue().getAssignmentTitle() : "N/A"));
         TableColumn<Submission, String> contentCol = new TableColumn<>("Content");
         contentCol.setCellValueFactory(new PropertyValueFactory<>("content"));
         TableColumn<Submission, String> fileNameCol = new TableColumn<>("Attached File");
@@ -1254,6 +1178,8 @@ public class LMSApplication extends Application {
         scoreCol.setCellValueFactory(new PropertyValueFactory<>("score"));
         TableColumn<Submission, String> feedbackCol = new TableColumn<>("Feedback");
         feedbackCol.setCellValueFactory(new PropertyValueFactory<>("feedback"));
+        Runnable refresh = () -> fillTable(table, session.submissions(), "Load scores failed");
+        refresh.run();
 
         table.getColumns().addAll(assignmentCol, contentCol, fileNameCol, scoreCol, feedbackCol);
         table.setRowFactory(tv -> {
@@ -1266,51 +1192,68 @@ public class LMSApplication extends Application {
 
         Button back = new Button("Back");
         back.setEffect(new DropShadow(6, Color.GRAY));
-        back.setOnAction(e -> primaryStage.setScene(mainScene));
+        back.setOnAction(e -> showMainScreen());
         scoresLayout.getChildren().add(back);
+        return new ScreenRouter.Screen(scoresLayout, refresh);
+    }
+
+    private void showNotifications() {
+        CompletableFuture<List<Assignment>> upcoming = userRole.equals("student") ? session.upcomingDeadlines() : dataService.upcomingDeadlines(loggedInUserId);
+        onFx(upcoming, (deadlines, error) -> {
+            StringBuilder content = new StringBuilder();
+            if (error != null) {
+                LOGGER.severe("Fetch notifications failed: " + error.getMessage());
+            } else {
+                for (Assignment assignment : deadlines) {
+                    content.append("Assignment: ").append(assignment.getTitle()).append(" due by ").append(assignment.getDeadline()).append("\n");
+                }
+            }
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Notifications");
+            alert.setHeaderText(null);
+            alert.setContentText(content.length() > 0 ? content.toString() : "No new notifications");
+            alert.showAndWait();
+        });
+    }
 
-        Scene scoresScene = new Scene(scoresLayout, 800, 600);
-        applyStylesheet(scoresScene);
-        primaryStage.setScene(scoresScene);
+    private void logAudit(String action, String details) {
+        dataService.logAudit(loggedInUserId, action, details);
     }
 
-    private void refreshPagination() {
-        Pagination pagination = new Pagination((int) Math.ceil((double) items.size() / ITEMS_PER_PAGE));
-        pagination.setPageFactory(this::createPage);
-        ScrollPane scrollPane = new ScrollPane();
-        scrollPane.setFitToWidth(true);
-        updateTheme(scrollPane);
-        scrollPane.setContent(pagination);
-        ((VBox)((BorderPane)mainScene.getRoot()).getCenter()).getChildren().set(1, scrollPane);
+    // Runs the callback on the FX thread once the background call finishes; cancelled calls are dropped.
+    private <T> void onFx(CompletableFuture<T> future, BiConsumer<T, Throwable> callback) {
+        future.whenComplete((value, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof CancellationException) {
+                return;
+            }
+            Platform.runLater(() -> callback.accept(value, cause));
+        });
     }
 
-    private void showNotifications() {
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("Notifications");
-        alert.setHeaderText(null);
-        StringBuilder content = new StringBuilder();
-        try (PreparedStatement stmt = connection.prepareStatement("SELECT title, deadline FROM assignments WHERE deadline > NOW() AND course_id IN (SELECT course_id FROM enrollments WHERE user_id = ?)")) {
-            stmt.setInt(1, loggedInUserId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                content.append("Assignment: ").append(rs.getString("title")).append(" due by ").append(rs.getTimestamp("deadline")).append("\n");
+    private <T> void deliver(CompletableFuture<T> future, Consumer<T> onSuccess, String failureMessage) {
+        deliver(future, onSuccess, failureMessage, () -> {});
+    }
+
+    private <T> void deliver(CompletableFuture<T> future, Consumer<T> onSuccess, String failureMessage, Runnable onFailure) {
+        onFx(future, (value, error) -> {
+            if (error == null) {
+                onSuccess.accept(value);
+                return;
             }
-        } catch (SQLException e) {
-            LOGGER.severe("Fetch notifications failed: " + e.getMessage());
-        }
-        alert.setContentText(content.length() > 0 ? content.toString() : "No new notifications");
-        alert.showAndWait();
+            onFailure.run();
+            showAlert("Database Error", failureMessage + ": " + error.getMessage());
+            LOGGER.severe(failureMessage + ": " + error.getMessage());
+        });
     }
 
-    private void logAudit(String action, String details) {
-        try (PreparedStatement stmt = connection.prepareStatement("INSERT INTO audit_logs (user_id, action, details) VALUES (?, ?, ?)")) {
-            stmt.setInt(1, loggedInUserId);
-            stmt.setString(2, action);
-            stmt.setString(3, details);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            LOGGER.severe("Audit log failed: " + e.getMessage());
-        }
+    private <T> void fillTable(TableView<T> table, CompletableFuture<List<T>> rows, String failureMessage) {
+        Node emptyPlaceholder = table.getPlaceholder();
+        table.setPlaceholder(new ProgressIndicator());
+        deliver(rows, loaded -> {
+            table.setPlaceholder(emptyPlaceholder);
+            table.getItems().setAll(loaded);
+        }, failureMessage, () -> table.setPlaceholder(emptyPlaceholder));
     }
 
     private void showAlert(String title, String message) {
@@ -1323,44 +1266,17 @@ public class LMSApplication extends Application {
 
     @Override
     public void stop() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            LOGGER.severe("Failed to close database connection: " + e.getMessage());
+        if (dataService != null) {
+            dataService.close(); // flushes pending audit events while the pool is still open
         }
-    }
-
-    private void updateTheme(Node node) {
-        if (node instanceof Pane) {
-            Pane pane = (Pane) node;
-            // Add or remove dark-mode class
-            if (darkMode) {
-                pane.getStyleClass().add("dark-mode");
-            } else {
-                pane.getStyleClass().remove("dark-mode");
-            }
-            // Ensure all relevant nodes have appropriate style classes
-            for (Node child : pane.getChildren()) {
-                if (child instanceof Label) {
-                    child.getStyleClass().add("label");
-                    if (((Label) child).getText().contains("LMS") || ((Label) child).getText().contains("Dashboard")) {
-                        child.getStyleClass().add("title");
-                    }
-                } else if (child instanceof TextField || child instanceof TextArea || child instanceof PasswordField) {
-                    child.getStyleClass().add(child instanceof TextField ? "text-field" : child instanceof PasswordField ? "password-field" : "text-area");
-                } else if (child instanceof Button) {
-                    child.getStyleClass().add("button");
-                    String currentStyle = ((Button) child).getStyle();
-                    if (currentStyle.contains("ff9800")) {
-                        child.getStyleClass().add("orange");
-                    }
-                } else if (child instanceof Pane) {
-                    updateTheme(child);
-                }
-            }
+        if (pool != null) {
+            LOGGER.info("Connection pool at shutdown: " + pool.getStats());
+            LOGGER.info("Password hashing at shutdown: " + CredentialService.getStats());
+            LOGGER.info("Animations at shutdown: " + AnimationGovernor.getStats());
+            QueryMetrics.dump();
         }
+        BackgroundExecutor.shutdown();
+        DatabaseConnection.shutdown();
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,85 @@
+package test.lms;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free latency histogram in microseconds: exact below 16 µs, then four buckets per power of two
+// (at most 25% error), up to about 12 days. Percentiles report the bucket's upper bound, capped at the max.
+public final class LatencyHistogram {
+    private static final int LINEAR = 16;
+    private static final int BUCKETS = LINEAR + (40 - 4 + 1) * 4;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        buckets.incrementAndGet(bucket(nanos / 1000));
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double totalMillis() {
+        return totalNanos.sum() / 1_000_000.0;
+    }
+
+    public double maxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    // One pass over a consistent-enough copy of the buckets for several percentiles, e.g. (0.5, 0.95, 0.99).
+    public double[] percentilesMillis(double... fractions) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        double max = maxMillis();
+        double[] result = new double[fractions.length];
+        for (int f = 0; f < fractions.length; f++) {
+            result[f] = Math.min(max, percentile(counts, total, fractions[f]));
+        }
+        return result;
+    }
+
+    private static double percentile(long[] counts, long total, double fraction) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i) / 1000.0;
+            }
+        }
+        return upperBound(counts.length - 1) / 1000.0;
+    }
+
+    private static int bucket(long micros) {
+        if (micros < LINEAR) {
+            return (int) Math.max(0, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - 2)) & 3;
+        return Math.min(BUCKETS - 1, LINEAR + (exponent - 4) * 4 + sub);
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR) / 4 + 4;
+        int sub = (bucket - LINEAR) % 4;
+        return ((4L + sub + 1) << (exponent - 2)) - 1;
+    }
+}
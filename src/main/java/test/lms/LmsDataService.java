@@ -0,0 +1,393 @@
+package test.lms;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import test.lms.LMSApplication.Assignment;
+import test.lms.LMSApplication.Course;
+import test.lms.LMSApplication.Submission;
+import test.lms.LMSApplication.User;
+
+// Data access for LMSApplication. Every call borrows a pooled connection on a background thread
+// and completes its future there; the UI hops back to the FX thread to render the result.
+public class LmsDataService {
+    private static final Logger LOGGER = Logger.getLogger(LmsDataService.class.getName());
+    private static final long ESTIMATED_COUNT_THRESHOLD = 50_000;
+
+    private final ConnectionPool pool;
+    private final BackgroundExecutor.TaskGroup tasks = BackgroundExecutor.newGroup("lms-data");
+    private final AuditWriter audit;
+
+    public LmsDataService(ConnectionPool pool) {
+        this.pool = pool;
+        this.audit = new AuditWriter(pool);
+    }
+
+    public record EnrollmentOptions(int enrolledCount, List<Course> available) {
+    }
+
+    public record OpenAssignment(int assignmentId, String title, int courseId, String courseName) {
+    }
+
+    public void cancelAll() {
+        tasks.cancelAll();
+    }
+
+    // Completes with null when the username is unknown or the password does not match.
+    // Hashing can wait for a slot and then take a few hundred ms, so it never runs while a pooled
+    // connection is held: a burst of logins would otherwise hold every connection.
+    public CompletableFuture<User> authenticate(String username, String password) {
+        return async(() -> {
+            User user;
+            String hash;
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement("SELECT id, email, password_hash, role FROM users WHERE username = ?")) {
+                stmt.setString(1, username);
+                ResultSet rs = stmt.executeQuery();
+                if (!rs.next()) {
+                    return null;
+                }
+                hash = rs.getString("password_hash");
+                user = new User(rs.getInt("id"), username, rs.getString("email"), rs.getString("role"));
+            }
+            if (!CredentialService.verify(password, hash)) {
+                return null;
+            }
+            if (CredentialService.needsRehash(hash)) {
+                rehash(user.getId(), password);
+            }
+            return user;
+        });
+    }
+
+    // Upgrades a hash made with an older, cheaper cost now that the plain password is at hand.
+    private void rehash(int userId, String password) {
+        async(() -> {
+            String hash = CredentialService.hash(password);
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement("UPDATE users SET password_hash = ? WHERE id = ?")) {
+                stmt.setString(1, hash);
+                stmt.setInt(2, userId);
+                stmt.executeUpdate();
+            }
+            return null;
+        }).exceptionally(e -> {
+            LOGGER.warning("Password rehash failed: " + e.getMessage());
+            return null;
+        });
+    }
+
+    // Completes with false when the username is already taken.
+    public CompletableFuture<Boolean> registerUser(String username, String email, String password, String role) {
+        return async(() -> {
+            try (Connection conn = pool.getConnection(); PreparedStatement checkStmt = conn.prepareStatement("SELECT COUNT(*) FROM users WHERE username = ?")) {
+                checkStmt.setString(1, username);
+                ResultSet rs = checkStmt.executeQuery();
+                if (rs.next() && rs.getInt(1) > 0) {
+                    return false;
+                }
+            }
+            insertUser(username, email, password, role);
+            return true;
+        });
+    }
+
+    public CompletableFuture<Void> addUser(String username, String email, String password, String role) {
+        return async(() -> {
+            insertUser(username, email, password, role);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<Double>> progressValues(int userId) {
+        return async(() -> {
+            List<Double> values = new ArrayList<>();
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement("SELECT progress FROM enrollments WHERE user_id = ? LIMIT 5")) {
+                stmt.setInt(1, userId);
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    values.add(rs.getDouble("progress"));
+                }
+            }
+            return values;
+        });
+    }
+
+    // Number of items on the main screen. Large user tables use the planner's row estimate instead of a
+    // full count; ItemPageSource corrects the page count once it reaches the real end.
+    public CompletableFuture<Integer> countItems(String role, int userId) {
+        return async(() -> {
+            try (Connection conn = pool.getConnection()) {
+                if (role.equals("admin")) {
+                    try (Statement stmt = conn.createStatement()) {
+                        ResultSet rs = stmt.executeQuery("SELECT reltuples::bigint FROM pg_class WHERE oid = 'users'::regclass");
+                        if (rs.next() && rs.getLong(1) >= ESTIMATED_COUNT_THRESHOLD) {
+                            return (int) Math.min(Integer.MAX_VALUE, rs.getLong(1));
+                        }
+                        rs = stmt.executeQuery("SELECT COUNT(*) FROM users");
+                        return rs.next() ? rs.getInt(1) : 0;
+                    }
+                }
+                String sql = role.equals("instructor")
+                        ? "SELECT COUNT(*) FROM courses WHERE instructor_id = ?"
+                        : "SELECT COUNT(*) FROM enrollments WHERE user_id = ?";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, userId);
+                    ResultSet rs = stmt.executeQuery();
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+        });
+    }
+
+    // One page of items ordered by id, starting after afterId. skip is only non-zero when the UI jumps
+    // past pages it has not seen yet; sequential paging is a pure index range scan.
+    public CompletableFuture<List<Object>> itemPage(String role, int userId, int afterId, int skip, int limit) {
+        return async(() -> {
+            List<Object> items = new ArrayList<>();
+            try (Connection conn = pool.getConnection()) {
+                if (role.equals("admin")) {
+                    try (PreparedStatement stmt = conn.prepareStatement("SELECT id, username, email, role FROM users WHERE id > ? ORDER BY id OFFSET ? LIMIT ?")) {
+                        stmt.setInt(1, afterId);
+                        stmt.setInt(2, skip);
+                        stmt.setInt(3, limit);
+                        ResultSet rs = stmt.executeQuery();
+                        while (rs.next()) {
+                            User user = new User(rs.getInt("id"), rs.getString("username"), rs.getString("email"), rs.getString("role"));
+                            items.add(user);
+                        }
+                    }
+                } else if (role.equals("instructor")) {
+                    try (PreparedStatement stmt = conn.prepareStatement("SELECT id, course_name, description, progress FROM courses WHERE instructor_id = ? AND id > ? ORDER BY id OFFSET ? LIMIT ?")) {
+                        stmt.setInt(1, userId);
+                        stmt.setInt(2, afterId);
+                        stmt.setInt(3, skip);
+                        stmt.setInt(4, limit);
+                        ResultSet rs = stmt.executeQuery();
+                        while (rs.next()) {
+                            items.add(new Course(rs.getInt("id"), rs.getString("course_name"), rs.getString("description"), userId, rs.getDouble("progress")));
+                        }
+                    }
+                } else if (role.equals("student")) {
+                    try (PreparedStatement stmt = conn.prepareStatement("SELECT c.id, c.course_name, c.description, c.instructor_id, e.progress FROM courses c JOIN enrollments e ON c.id = e.course_id WHERE e.user_id = ? AND c.id > ? ORDER BY c.id OFFSET ? LIMIT ?")) {
+                        stmt.setInt(1, userId);
+                        stmt.setInt(2, afterId);
+                        stmt.setInt(3, skip);
+                        stmt.setInt(4, limit);
+                        ResultSet rs = stmt.executeQuery();
+                        while (rs.next()) {
+                            items.add(new Course(rs.getInt("id"), rs.getString("course_name"), rs.getString("description"), rs.getInt("instructor_id"), rs.getDouble("progress")));
+                        }
+                    }
+                }
+            }
+            return items;
+        });
+    }
+
+    public CompletableFuture<Void> addCourse(String name, String description, int instructorId, double progress) {
+        return async(() -> {
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement("INSERT INTO courses (course_name, description, instructor_id, progress) VALUES (?, ?, ?, ?)")) {
+                stmt.setString(1, name);
+                stmt.setString(2, description);
+                stmt.setInt(3, instructorId);
+                stmt.setDouble(4, progress);
+                stmt.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> addAssignment(Assignment assignment) {
+        return async(() -> {
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement("INSERT INTO assignments (course_id, title, description, max_score, deadline) VALUES (?, ?, ?, ?, ?)")) {
+                stmt.setInt(1, assignment.getCourseId());
+                stmt.setString(2, assignment.getTitle());
+                stmt.setString(3, assignment.getDescription());
+                stmt.setDouble(4, assignment.getMaxScore());
+                stmt.setTimestamp(5, assignment.getDeadline());
+                stmt.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> enroll(int userId, int courseId) {
+        return async(() -> {
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement("INSERT INTO enrollments (user_id, course_id, progress) VALUES (?, ?, 0.0)")) {
+                stmt.setInt(1, userId);
+                stmt.setInt(2, courseId);
+                stmt.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> submitAssignment(Submission submission) {
+        return async(() -> {
+            try (Connection conn = pool.getConnection(); PreparedStatement insertStmt = conn.prepareStatement("INSERT INTO submissions (assignment_id, student_id, content, file_name) VALUES (?, ?, ?, ?)")) {
+                insertStmt.setInt(1, submission.getAssignmentId());
+                insertStmt.setInt(2, submission.getStudentId());
+                insertStmt.setString(3, submission.getContent());
+                insertStmt.setString(4, submission.getFileName());
+                insertStmt.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<Submission>> courseSubmissions(int courseId) {
+        return async(() -> {
+            List<Submission> submissions = new ArrayList<>();
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT s.id, s.assignment_id, s.student_id, s.content, s.file_name, s.score, s.feedback, u.username, a.title " +
+                            "FROM submissions s " +
+                            "JOIN assignments a ON s.assignment_id = a.id " +
+                            "JOIN users u ON s.student_id = u.id " +
+                            "WHERE a.course_id = ? ORDER BY s.id")) {
+                stmt.setInt(1, courseId);
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    submissions.add(new Submission(rs.getInt("id"), rs.getInt("assignment_id"), rs.getInt("student_id"), rs.getString("content"), rs.getString("file_name"),
+                            rs.getObject("score") != null ? rs.getDouble("score") : null, rs.getString("feedback"), rs.getString("username"), rs.getString("title")));
+                }
+            }
+            return submissions;
+        });
+    }
+
+    public CompletableFuture<Void> gradeSubmission(int submissionId, double score, String feedback) {
+        return async(() -> {
+            try (Connection conn = pool.getConnection(); PreparedStatement updateStmt = conn.prepareStatement("UPDATE submissions SET score = ?, feedback = ? WHERE id = ?")) {
+                updateStmt.setDouble(1, score);
+                updateStmt.setString(2, feedback);
+                updateStmt.setInt(3, submissionId);
+                updateStmt.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<Assignment>> upcomingDeadlines(int userId) {
+        return async(() -> {
+            List<Assignment> assignments = new ArrayList<>();
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement("SELECT title, deadline FROM assignments WHERE deadline > NOW() AND course_id IN (SELECT course_id FROM enrollments WHERE user_id = ?)")) {
+                stmt.setInt(1, userId);
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    assignments.add(new Assignment(0, 0, rs.getString("title"), null, 0, rs.getTimestamp("deadline")));
+                }
+            }
+            return assignments;
+        });
+    }
+
+    // Courses on the user's main screen: enrolled courses (with the student's own progress) or taught courses.
+    public CompletableFuture<List<Course>> myCourses(String role, int userId) {
+        return async(() -> {
+            List<Course> courses = new ArrayList<>();
+            String sql = role.equals("student")
+                    ? "SELECT c.id, c.course_name, c.description, c.instructor_id, e.progress FROM courses c JOIN enrollments e ON c.id = e.course_id WHERE e.user_id = ? ORDER BY c.id"
+                    : "SELECT id, course_name, description, instructor_id, progress FROM courses WHERE instructor_id = ? ORDER BY id";
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, userId);
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    courses.add(new Course(rs.getInt("id"), rs.getString("course_name"), rs.getString("description"), rs.getInt("instructor_id"), rs.getDouble("progress")));
+                }
+            }
+            return courses;
+        });
+    }
+
+    public CompletableFuture<List<Course>> courseCatalog() {
+        return async(() -> {
+            List<Course> courses = new ArrayList<>();
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement("SELECT id, course_name FROM courses ORDER BY id")) {
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    courses.add(new Course(rs.getInt("id"), rs.getString("course_name"), null, 0, 0.0));
+                }
+            }
+            return courses;
+        });
+    }
+
+    // Every assignment of the courses the user is enrolled in or teaches.
+    public CompletableFuture<List<Assignment>> myAssignments(String role, int userId) {
+        return async(() -> {
+            List<Assignment> assignments = new ArrayList<>();
+            String sql = role.equals("student")
+                    ? "SELECT a.id, a.course_id, a.title, a.description, a.max_score, a.deadline FROM assignments a JOIN enrollments e ON a.course_id = e.course_id WHERE e.user_id = ? ORDER BY a.id"
+                    : "SELECT a.id, a.course_id, a.title, a.description, a.max_score, a.deadline FROM assignments a JOIN courses c ON a.course_id = c.id WHERE c.instructor_id = ? ORDER BY a.id";
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, userId);
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    assignments.add(new Assignment(rs.getInt("id"), rs.getInt("course_id"), rs.getString("title"), rs.getString("description"), rs.getDouble("max_score"), rs.getTimestamp("deadline")));
+                }
+            }
+            return assignments;
+        });
+    }
+
+    public CompletableFuture<List<Submission>> studentSubmissions(int studentId) {
+        return async(() -> {
+            List<Submission> submissions = new ArrayList<>();
+            try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT s.id, s.assignment_id, s.content, s.file_name, s.score, s.feedback, a.title " +
+                            "FROM submissions s JOIN assignments a ON s.assignment_id = a.id " +
+                            "WHERE s.student_id = ? ORDER BY s.id")) {
+                stmt.setInt(1, studentId);
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    double score = rs.getDouble("score");
+                    submissions.add(new Submission(rs.getInt("id"), rs.getInt("assignment_id"), studentId, rs.getString("content"), rs.getString("file_name"),
+                            rs.wasNull() ? null : score, rs.getString("feedback"), null, rs.getString("title")));
+                }
+            }
+            return submissions;
+        });
+    }
+
+    // Queued for the batched audit writer; returns without a database round trip.
+    public void logAudit(int userId, String action, String details) {
+        audit.log(userId, action, details);
+    }
+
+    // Cancels outstanding work and drains the audit queue; call once when the application stops.
+    public void close() {
+        tasks.cancelAll();
+        audit.close();
+    }
+
+    // Bulk CSV import; progress is reported from the background thread after every chunk.
+    public CompletableFuture<UserImporter.Result> importUsers(Path file, Consumer<UserImporter.Progress> progress) {
+        return async(() -> {
+            return new UserImporter(pool).importCsv(file, progress);
+        });
+    }
+
+    private void insertUser(String username, String email, String password, String role) throws SQLException {
+        String hash = CredentialService.hash(password);
+        try (Connection conn = pool.getConnection(); PreparedStatement stmt = conn.prepareStatement("INSERT INTO users (username, email, password_hash, role) VALUES (?, ?, ?, ?)")) {
+            stmt.setString(1, username);
+            stmt.setString(2, email);
+            stmt.setString(3, hash);
+            stmt.setString(4, role);
+            stmt.executeUpdate();
+        }
+    }
+
+    private <T> CompletableFuture<T> async(Callable<T> work) {
+        return tasks.supply(work);
+    }
+}
@@ -1,21 +1,41 @@
 package test.lms;
 
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import java.io.IOException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.sql.*;
 
 public class LoginController {
+    private static final String ADMIN_DASHBOARD = "/test/lms/AdminDashboard.fxml";
+    private static final String INSTRUCTOR_DASHBOARD = "/test/lms/InstructorDashboard.fxml";
+
     @FXML private TextField emailField;
     @FXML private PasswordField passwordField;
     @FXML private Label loginMessageLabel;
 
+    // The role is unknown until the login succeeds, so both dashboards are built in the background
+    // as soon as the user starts typing. Once the login resolves to a role, or the user goes to sign up,
+    // whichever of them is not taken is discarded.
+    @FXML
+    private void initialize() {
+        emailField.textProperty().addListener((obs, oldText, newText) -> preloadDashboards());
+        passwordField.textProperty().addListener((obs, oldText, newText) -> preloadDashboards());
+    }
+
+    private void preloadDashboards() {
+        FxmlPreloader.preload(ADMIN_DASHBOARD);
+        FxmlPreloader.preload(INSTRUCTOR_DASHBOARD);
+    }
+
+    // A dashboard already taken is no longer preloaded, so this only drops the other one.
+    private void discardDashboards() {
+        FxmlPreloader.discard(ADMIN_DASHBOARD);
+        FxmlPreloader.discard(INSTRUCTOR_DASHBOARD);
+    }
+
     // Handle login button click
     @FXML
     private void handleLogin() {
@@ -40,25 +60,18 @@ public class LoginController {
         } catch (SQLException e) {
             loginMessageLabel.setText("Database error: " + e.getMessage());
             e.printStackTrace();
-        } catch (NoSuchAlgorithmException e) {
-            loginMessageLabel.setText("System error: Password hashing failed");
-            e.printStackTrace();
         }
     }
 
     // Validate user credentials and fetch role
-    private String validateLoginAndGetRole(String email, String password) throws SQLException, NoSuchAlgorithmException {
-        String url = "jdbc:postgresql://localhost:5432/lms";
-        String dbUser = "postgres"; // your DB username
-        String dbPassword = "654321"; // your DB password
-
+    private String validateLoginAndGetRole(String email, String password) throws SQLException {
         String query = "SELECT user_type FROM users WHERE email = ? AND password_hash = ?";
 
-        try (Connection conn = DriverManager.getConnection(url, dbUser, dbPassword);
+        try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setString(1, email);
-            stmt.setString(2, hashPasswordSHA256(password));
+            stmt.setString(2, CredentialService.sha256Hex(password));
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -74,20 +87,6 @@ public class LoginController {
         }
     }
 
-    // Hash password with SHA-256
-    private String hashPasswordSHA256(String password) throws NoSuchAlgorithmException {
-        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-        byte[] hashBytes = digest.digest(password.getBytes());
-
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : hashBytes) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) hexString.append('0');
-            hexString.append(hex);
-        }
-        return hexString.toString();
-    }
-
     // Load dashboard based on user role
     private void loadDashboardForRole(String role) {
         try {
@@ -98,13 +97,13 @@ public class LoginController {
                 case "administrator":
                 case "admin": // handle possible variations
                 case "administrator ":
-                    root = FXMLLoader.load(getClass().getResource("/test/lms/AdminDashboard.fxml"));
+                    root = FxmlPreloader.take(ADMIN_DASHBOARD).root();
                     break;
                 case "student":
-                    root = FXMLLoader.load(getClass().getResource("/test/lms/StudentDashboard.fxml"));
+                    root = FxmlPreloader.take("/test/lms/StudentDashboard.fxml").root();
                     break;
                 case "instructor":
-                    root = FXMLLoader.load(getClass().getResource("/test/lms/InstructorDashboard.fxml"));
+                    root = FxmlPreloader.take(INSTRUCTOR_DASHBOARD).root();
                     break;
                 default:
                     loginMessageLabel.setText("Unknown role: " + role);
@@ -116,14 +115,17 @@ public class LoginController {
         } catch (IOException e) {
             e.printStackTrace();
             loginMessageLabel.setText("Error loading dashboard");
+        } finally {
+            discardDashboards();
         }
     }
 
     // Show signup scene
     @FXML
     private void showSignupScreen() {
+        discardDashboards();
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/test/lms/signup.fxml"));
+            Parent root = FxmlPreloader.take("/test/lms/signup.fxml").root();
             Stage stage = (Stage) emailField.getScene().getWindow();
             stage.setScene(new Scene(root));
             stage.show();
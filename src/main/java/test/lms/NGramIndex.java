@@ -0,0 +1,264 @@
+package test.lms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory n-gram index over short texts (course titles, user names).
+// Substring queries intersect 1/2/3-gram posting lists; when nothing contains the term,
+// a typo-tolerant pass ranks entries by bigram (Dice) similarity instead.
+public class NGramIndex<V> {
+    private static final char BOUNDARY = '\u0000';
+    private static final double MIN_SIMILARITY = 0.4;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final Map<String, Integer> docByKey = new HashMap<>();
+    private final List<String> texts = new ArrayList<>();
+    private final List<V> values = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private int[] fuzzyGramCounts = new int[64];
+    private int dead;
+
+    // Adds or replaces the entry identified by key (e.g. a user's email or a course id).
+    public void put(String key, String text, V value) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            int doc = texts.size();
+            String normalized = normalize(text);
+            texts.add(normalized);
+            values.add(value);
+            keys.add(key);
+            docByKey.put(key, doc);
+            for (long gram : substringGrams(normalized)) {
+                postings.computeIfAbsent(gram, g -> new IntList()).add(doc);
+            }
+            Set<Long> fuzzy = fuzzyGrams(normalized);
+            for (long gram : fuzzy) {
+                postings.computeIfAbsent(gram, g -> new IntList()).add(doc);
+            }
+            if (doc >= fuzzyGramCounts.length) {
+                fuzzyGramCounts = Arrays.copyOf(fuzzyGramCounts, fuzzyGramCounts.length * 2);
+            }
+            fuzzyGramCounts[doc] = fuzzy.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // First entry whose text equals the given text, ignoring case.
+    public V findExact(String text) {
+        String normalized = normalize(text);
+        lock.readLock().lock();
+        try {
+            for (int doc : candidates(normalized)) {
+                if (normalized.equals(texts.get(doc))) {
+                    return values.get(doc);
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Entries containing the term, in insertion order; if there are none, close misspellings ranked by similarity.
+    public List<V> search(String term) {
+        String normalized = normalize(term);
+        lock.readLock().lock();
+        try {
+            List<V> result = new ArrayList<>();
+            if (normalized.isEmpty()) {
+                for (int doc = 0; doc < texts.size(); doc++) {
+                    if (texts.get(doc) != null) {
+                        result.add(values.get(doc));
+                    }
+                }
+                return result;
+            }
+            for (int doc : candidates(normalized)) {
+                if (texts.get(doc).contains(normalized)) {
+                    result.add(values.get(doc));
+                }
+            }
+            if (result.isEmpty() && normalized.length() >= 3) {
+                fuzzySearch(normalized, result);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void fuzzySearch(String normalized, List<V> result) {
+        Set<Long> queryGrams = fuzzyGrams(normalized);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (long gram : queryGrams) {
+            IntList list = postings.get(gram);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size; i++) {
+                int doc = list.items[i];
+                if (texts.get(doc) != null) {
+                    shared.merge(doc, 1, Integer::sum);
+                }
+            }
+        }
+        List<int[]> scored = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+            int doc = entry.getKey();
+            double dice = 2.0 * entry.getValue() / (queryGrams.size() + fuzzyGramCounts[doc]);
+            if (dice >= MIN_SIMILARITY) {
+                scored.add(new int[]{doc, (int) (dice * 1000)});
+            }
+        }
+        scored.sort((a, b) -> a[1] != b[1] ? Integer.compare(b[1], a[1]) : Integer.compare(a[0], b[0]));
+        for (int[] entry : scored) {
+            result.add(values.get(entry[0]));
+        }
+    }
+
+    // Live documents holding every n-gram of the term; callers still verify the match.
+    private List<Integer> candidates(String normalized) {
+        List<Integer> result = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return result;
+        }
+        int n = Math.min(3, normalized.length());
+        List<IntList> lists = new ArrayList<>();
+        for (int i = 0; i + n <= normalized.length(); i++) {
+            IntList list = postings.get(pack(normalized, i, n));
+            if (list == null) {
+                return result;
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        IntList smallest = lists.get(0);
+        outer:
+        for (int i = 0; i < smallest.size; i++) {
+            int doc = smallest.items[i];
+            if (texts.get(doc) == null) {
+                continue;
+            }
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(doc)) {
+                    continue outer;
+                }
+            }
+            result.add(doc);
+        }
+        return result;
+    }
+
+    private void removeLocked(String key) {
+        Integer doc = docByKey.remove(key);
+        if (doc == null) {
+            return;
+        }
+        // Postings are cleaned lazily; dead documents are skipped and dropped on compaction.
+        texts.set(doc, null);
+        values.set(doc, null);
+        keys.set(doc, null);
+        dead++;
+        if (dead > 1024 && dead > docByKey.size()) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        List<String> oldKeys = new ArrayList<>(keys);
+        List<String> oldTexts = new ArrayList<>(texts);
+        List<V> oldValues = new ArrayList<>(values);
+        postings.clear();
+        docByKey.clear();
+        texts.clear();
+        values.clear();
+        keys.clear();
+        dead = 0;
+        for (int i = 0; i < oldTexts.size(); i++) {
+            if (oldTexts.get(i) != null) {
+                int doc = texts.size();
+                texts.add(oldTexts.get(i));
+                values.add(oldValues.get(i));
+                keys.add(oldKeys.get(i));
+                docByKey.put(oldKeys.get(i), doc);
+                for (long gram : substringGrams(oldTexts.get(i))) {
+                    postings.computeIfAbsent(gram, g -> new IntList()).add(doc);
+                }
+                Set<Long> fuzzy = fuzzyGrams(oldTexts.get(i));
+                for (long gram : fuzzy) {
+                    postings.computeIfAbsent(gram, g -> new IntList()).add(doc);
+                }
+                fuzzyGramCounts[doc] = fuzzy.size();
+            }
+        }
+    }
+
+    private static Set<Long> substringGrams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int n = 1; n <= 3; n++) {
+            for (int i = 0; i + n <= text.length(); i++) {
+                grams.add(pack(text, i, n));
+            }
+        }
+        return grams;
+    }
+
+    // Bigrams of the text padded with boundary markers; tagged so they never collide with substring grams.
+    private static Set<Long> fuzzyGrams(String text) {
+        Set<Long> grams = new HashSet<>();
+        String padded = BOUNDARY + text + BOUNDARY;
+        for (int i = 0; i + 2 <= padded.length(); i++) {
+            grams.add(pack(padded, i, 2) | (4L << 48));
+        }
+        return grams;
+    }
+
+    private static long pack(String text, int start, int length) {
+        long packed = (long) length << 48;
+        for (int i = 0; i < length; i++) {
+            packed |= (long) text.charAt(start + i) << (32 - 16 * i);
+        }
+        return packed;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Posting list of document ids; ids are assigned in increasing order, so lists stay sorted.
+    private static final class IntList {
+        private int[] items = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        private boolean contains(int value) {
+            return Arrays.binarySearch(items, 0, size, value) >= 0;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package test.lms;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// The main screen's items as one list of the (possibly estimated) total size, for a virtualized ListView.
+// get() on a row whose page has not arrived returns null and asks the source for it; the rows are updated
+// in place when it lands. The view only asks for rows it shows, so scrolling through thousands of items
+// fetches pages as they come into view and never holds more than the source's page cache.
+// FX thread only.
+public class PagedItemList extends ObservableListBase<Object> {
+    private final ItemPageSource source;
+    private final int pageSize;
+    private final Consumer<Throwable> onPageFailed;
+    private final Set<Integer> requested = new HashSet<>();
+    // Not retried while this list is shown, so a failing query is reported once instead of on every layout pass
+    private final Set<Integer> failed = new HashSet<>();
+    private int size;
+
+    public PagedItemList(ItemPageSource source, int size, Consumer<Throwable> onPageFailed) {
+        this.source = source;
+        this.pageSize = source.pageSize();
+        this.size = size;
+        this.onPageFailed = onPageFailed;
+        source.setOnSizeChanged(count -> Platform.runLater(() -> resize(count)));
+    }
+
+    @Override
+    public Object get(int index) {
+        Objects.checkIndex(index, size);
+        int pageIndex = index / pageSize;
+        List<Object> page = source.loadedPage(pageIndex);
+        if (page == null) {
+            request(pageIndex);
+            return null;
+        }
+        int offset = index - pageIndex * pageSize;
+        return offset < page.size() ? page.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void request(int pageIndex) {
+        if (failed.contains(pageIndex) || !requested.add(pageIndex)) {
+            return;
+        }
+        source.page(pageIndex).whenComplete((items, error) -> Platform.runLater(() -> {
+            requested.remove(pageIndex);
+            if (error != null) {
+                failed.add(pageIndex);
+                onPageFailed.accept(error);
+                return;
+            }
+            pageArrived(pageIndex);
+        }));
+    }
+
+    private void pageArrived(int pageIndex) {
+        int from = pageIndex * pageSize;
+        int to = Math.min(size, from + pageSize);
+        if (from >= to) {
+            return;
+        }
+        beginChange();
+        for (int i = from; i < to; i++) {
+            nextUpdate(i);
+        }
+        endChange();
+    }
+
+    private void resize(int newSize) {
+        if (newSize == size) {
+            return;
+        }
+        int oldSize = size;
+        size = newSize;
+        beginChange();
+        if (newSize > oldSize) {
+            nextAdd(oldSize, newSize);
+        } else {
+            // ListView only needs the range; the removed rows are reported as placeholders
+            nextRemove(newSize, Collections.nCopies(oldSize - newSize, null));
+        }
+        endChange();
+    }
+}
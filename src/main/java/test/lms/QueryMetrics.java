@@ -0,0 +1,228 @@
+package test.lms;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+// Per-query statistics for every statement handed out by the connection pool: calls, errors, rows and a
+// latency histogram, keyed by the SQL text with literals replaced by '?'. A summary of the slowest queries
+// is logged every DB_METRICS_DUMP_SECONDS; DB_METRICS=off turns the wrapping off entirely.
+public final class QueryMetrics {
+    private static final Logger LOGGER = Logger.getLogger(QueryMetrics.class.getName());
+    static final boolean ENABLED = !"off".equalsIgnoreCase(System.getenv("DB_METRICS"));
+    private static final long DUMP_SECONDS = Settings.longSetting("DB_METRICS_DUMP_SECONDS", 300);
+    private static final int DUMP_TOP = 15;
+    private static final int MAX_DISTINCT_QUERIES = 2000;
+    private static final String OVERFLOW_KEY = "(other queries)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?(?![\\w$])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, QueryStats> STATS = new ConcurrentHashMap<>();
+    private static final Map<String, String> NORMALIZED = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService DUMPER;
+
+    static {
+        if (ENABLED && DUMP_SECONDS > 0) {
+            DUMPER = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "lms-query-metrics");
+                t.setDaemon(true);
+                return t;
+            });
+            DUMPER.scheduleWithFixedDelay(QueryMetrics::dump, DUMP_SECONDS, DUMP_SECONDS, TimeUnit.SECONDS);
+        } else {
+            DUMPER = null;
+        }
+    }
+
+    private QueryMetrics() {
+    }
+
+    public record QueryStat(String sql, long calls, long errors, long rows, double totalMillis,
+                            double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+    }
+
+    // Slowest queries first, by total time spent.
+    public static List<QueryStat> snapshot() {
+        List<QueryStat> result = new ArrayList<>();
+        STATS.forEach((sql, stats) -> result.add(stats.snapshot(sql)));
+        result.sort(Comparator.comparingDouble(QueryStat::totalMillis).reversed());
+        return result;
+    }
+
+    public static void reset() {
+        STATS.clear();
+    }
+
+    public static void dump() {
+        List<QueryStat> stats = snapshot();
+        if (stats.isEmpty()) {
+            return;
+        }
+        StringBuilder out = new StringBuilder("Query statistics (top ").append(Math.min(DUMP_TOP, stats.size())).append(" of ").append(stats.size()).append(" by total time):");
+        for (QueryStat stat : stats.subList(0, Math.min(DUMP_TOP, stats.size()))) {
+            out.append(String.format("%n  calls=%d errors=%d rows=%d total=%.1fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms  %s",
+                    stat.calls(), stat.errors(), stat.rows(), stat.totalMillis(), stat.p50Millis(), stat.p95Millis(), stat.p99Millis(), stat.maxMillis(), stat.sql()));
+        }
+        LOGGER.info(out.toString());
+    }
+
+    static String normalize(String sql) {
+        String cached = NORMALIZED.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        if (NORMALIZED.size() < MAX_DISTINCT_QUERIES * 4) {
+            NORMALIZED.put(sql, normalized);
+        }
+        return normalized;
+    }
+
+    // Wraps a statement from the pool; preparedSql is null for plain Statements, whose SQL arrives with execute().
+    static Statement wrap(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                new StatementHandler(statement, preparedSql == null ? null : statsFor(preparedSql)));
+    }
+
+    private static QueryStats statsFor(String sql) {
+        String key = normalize(sql);
+        QueryStats stats = STATS.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        // Ad-hoc SQL with inlined identifiers could grow the map without bound
+        if (STATS.size() >= MAX_DISTINCT_QUERIES) {
+            key = OVERFLOW_KEY;
+        }
+        return STATS.computeIfAbsent(key, k -> new QueryStats());
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final QueryStats preparedStats;
+
+        private StatementHandler(Statement statement, QueryStats preparedStats) {
+            this.statement = statement;
+            this.preparedStats = preparedStats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (name.equals("equals")) {
+                    return proxy == args[0];
+                }
+                if (name.equals("hashCode")) {
+                    return System.identityHashCode(proxy);
+                }
+                return call(method, args);
+            }
+            QueryStats stats = args != null && args.length > 0 && args[0] instanceof String sql ? statsFor(sql)
+                    : preparedStats != null ? preparedStats : statsFor("(statement batch)");
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = call(method, args);
+            } catch (Throwable e) {
+                stats.record(System.nanoTime() - start, 0, true);
+                throw e;
+            }
+            long rows = 0;
+            if (result instanceof Integer count && count > 0) {
+                rows = count;
+            } else if (result instanceof Long count && count > 0) {
+                rows = count;
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(0, count);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    rows += Math.max(0, count);
+                }
+            }
+            stats.record(System.nanoTime() - start, rows, false);
+            if (result instanceof ResultSet rs) {
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, new ResultSetHandler(rs, stats));
+            }
+            return result;
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // Counts rows as the caller reads them.
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final QueryStats stats;
+
+        private ResultSetHandler(ResultSet resultSet, QueryStats stats) {
+            this.resultSet = resultSet;
+            this.stats = stats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            try {
+                Object result = method.invoke(resultSet, args);
+                if (result == Boolean.TRUE && method.getName().equals("next")) {
+                    stats.rows.increment();
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class QueryStats {
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private void record(long nanos, long affectedRows, boolean error) {
+            latency.record(nanos);
+            if (error) {
+                errors.increment();
+            }
+            if (affectedRows > 0) {
+                rows.add(affectedRows);
+            }
+        }
+
+        private QueryStat snapshot(String sql) {
+            double[] percentiles = latency.percentilesMillis(0.50, 0.95, 0.99);
+            return new QueryStat(sql, latency.count(), errors.sum(), rows.sum(), latency.totalMillis(),
+                    percentiles[0], percentiles[1], percentiles[2], latency.maxMillis());
+        }
+    }
+}
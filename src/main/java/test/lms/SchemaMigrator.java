@@ -0,0 +1,269 @@
+package test.lms;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+// Versioned schema migrations for the LMSApplication database. Applied versions are recorded in
+// schema_version with a checksum of what ran; on a current schema startup costs one query and no DDL.
+// Migrations are append-only: never edit one that has shipped, add a new version instead.
+public class SchemaMigrator {
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrator.class.getName());
+    private static final long LOCK_KEY = 0x4c4d535f4d4947L; // "LMS_MIG", serializes migrating instances
+    private static final long LOCK_TIMEOUT_MILLIS = Math.max(1, Settings.longSetting("MIGRATION_LOCK_TIMEOUT_SECONDS", 300)) * 1000;
+    private static final long LOCK_POLL_MILLIS = 500;
+
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    // transactional=false is for statements PostgreSQL refuses inside a transaction, e.g. CREATE INDEX CONCURRENTLY.
+    private record Migration(int version, String description, String definition, boolean transactional, Step step) {
+        String checksum() {
+            return CredentialService.sha256Hex(version + "\n" + description + "\n" + definition);
+        }
+    }
+
+    // Demo data for migration 2. Its checksum is taken over these statements and rows, so changing them is detected.
+    private static final String[] DEMO_USERS = {"admin1,admin1@example.com,adminpass,admin", "instructor1,instructor1@example.com,instpass,instructor", "student1,student1@example.com,studpass,student"};
+    private static final String[] DEMO_COURSES = {"Java Basics,Intro to Java,instructor1,0.5", "Web Dev,HTML/CSS basics,instructor1,0.3"};
+    private static final String INSERT_DEMO_USER = "INSERT INTO users (username, email, password_hash, role) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_DEMO_COURSE = "INSERT INTO courses (course_name, description, instructor_id, progress) VALUES (?, ?, (SELECT id FROM users WHERE username = ?), ?)";
+    private static final String INSERT_DEMO_ENROLLMENT = "INSERT INTO enrollments (user_id, course_id, progress) VALUES ((SELECT id FROM users WHERE username = 'student1'), 1, 0.4)";
+    private static final String INSERT_DEMO_ASSIGNMENT = "INSERT INTO assignments (course_id, title, description, max_score, deadline) VALUES (1, 'Java Homework', 'Complete Chapter 1', 100, NOW() + INTERVAL '7 days')";
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            sql(1, "Baseline tables",
+                    "CREATE TABLE IF NOT EXISTS users (id SERIAL PRIMARY KEY, username VARCHAR(50) UNIQUE NOT NULL, password_hash VARCHAR(60) NOT NULL, email VARCHAR(100) NOT NULL, role VARCHAR(20) NOT NULL CHECK (role IN ('admin', 'instructor', 'student')))",
+                    "CREATE TABLE IF NOT EXISTS courses (id SERIAL PRIMARY KEY, course_name VARCHAR(100) NOT NULL, description TEXT, instructor_id INTEGER REFERENCES users(id), created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, progress DOUBLE PRECISION DEFAULT 0.0)",
+                    "CREATE TABLE IF NOT EXISTS enrollments (user_id INTEGER REFERENCES users(id), course_id INTEGER REFERENCES courses(id), progress DOUBLE PRECISION NOT NULL, PRIMARY KEY (user_id, course_id))",
+                    "CREATE TABLE IF NOT EXISTS assignments (id SERIAL PRIMARY KEY, course_id INTEGER REFERENCES courses(id), title VARCHAR(100) NOT NULL, description TEXT, max_score DOUBLE PRECISION, deadline TIMESTAMP)",
+                    "CREATE TABLE IF NOT EXISTS submissions (id SERIAL PRIMARY KEY, assignment_id INTEGER REFERENCES assignments(id), student_id INTEGER REFERENCES users(id), content TEXT, file_name VARCHAR(255), score DOUBLE PRECISION, feedback TEXT)",
+                    "CREATE TABLE IF NOT EXISTS audit_logs (id SERIAL PRIMARY KEY, user_id INTEGER REFERENCES users(id), action VARCHAR(100) NOT NULL, details TEXT, timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP)"),
+            new Migration(2, "Demo data for an empty database", demoDataDefinition(), true, SchemaMigrator::seedDemoData),
+            // enrollments(user_id) is already served by the (user_id, course_id) primary key; the course-side lookup is not.
+            concurrentIndexes(3, "Secondary indexes for foreign keys and audit time",
+                    "idx_courses_instructor_id ON courses (instructor_id, id)",
+                    "idx_enrollments_course_id ON enrollments (course_id)",
+                    "idx_assignments_course_id ON assignments (course_id)",
+                    "idx_submissions_assignment_id ON submissions (assignment_id)",
+                    "idx_submissions_student_id ON submissions (student_id)",
+                    "idx_audit_logs_timestamp ON audit_logs (timestamp)")
+    );
+
+    private final ConnectionPool pool;
+
+    public SchemaMigrator(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    // Brings the schema up to date and returns the number of migrations applied.
+    public int migrate() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            Map<Integer, String> applied = appliedChecksums(conn);
+            verify(applied);
+            if (applied.size() == MIGRATIONS.size()) {
+                LOGGER.fine("Schema is current at version " + latestVersion());
+                return 0;
+            }
+
+            lock(conn);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (version INTEGER PRIMARY KEY, description VARCHAR(200) NOT NULL, checksum CHAR(64) NOT NULL, installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, execution_ms BIGINT)");
+                }
+                // Another instance may have migrated while we waited for the lock
+                applied = appliedChecksums(conn);
+                verify(applied);
+                int count = 0;
+                for (Migration migration : MIGRATIONS) {
+                    if (!applied.containsKey(migration.version())) {
+                        apply(conn, migration);
+                        count++;
+                    }
+                }
+                return count;
+            } finally {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                }
+            }
+        }
+    }
+
+    // A blocking pg_advisory_lock would leave the waiting session in a statement whose snapshot a
+    // CREATE INDEX CONCURRENTLY run by the lock holder has to wait out, and neither would finish. Polling keeps
+    // the waiter out of any transaction between attempts.
+    private static void lock(Connection conn) throws SQLException {
+        long deadline = System.currentTimeMillis() + LOCK_TIMEOUT_MILLIS;
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            stmt.setLong(1, LOCK_KEY);
+            while (true) {
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next() && rs.getBoolean(1)) {
+                        return;
+                    }
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new SQLException("Timed out after " + LOCK_TIMEOUT_MILLIS / 1000 + " s waiting for another instance to finish migrating the schema");
+                }
+                try {
+                    Thread.sleep(LOCK_POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for the schema migration lock", e);
+                }
+            }
+        }
+    }
+
+    private static Map<Integer, String> appliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        } catch (SQLException e) {
+            if (!"42P01".equals(e.getSQLState())) { // undefined_table: nothing applied yet
+                throw e;
+            }
+        }
+        return applied;
+    }
+
+    private static void verify(Map<Integer, String> applied) throws SQLException {
+        for (Migration migration : MIGRATIONS) {
+            String checksum = applied.get(migration.version());
+            if (checksum != null && !checksum.equals(migration.checksum())) {
+                throw new SQLException("Schema migration " + migration.version() + " (" + migration.description() + ") was changed after it was applied");
+            }
+        }
+        for (int version : applied.keySet()) {
+            if (version > latestVersion()) {
+                throw new SQLException("Database schema version " + version + " is newer than this application (" + latestVersion() + ")");
+            }
+        }
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        LOGGER.info("Applying schema migration " + migration.version() + ": " + migration.description());
+        conn.setAutoCommit(!migration.transactional());
+        try {
+            migration.step().apply(conn);
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+                stmt.setInt(1, migration.version());
+                stmt.setString(2, migration.description());
+                stmt.setString(3, migration.checksum());
+                stmt.setLong(4, (System.nanoTime() - start) / 1_000_000);
+                stmt.executeUpdate();
+            }
+            if (migration.transactional()) {
+                conn.commit();
+            }
+        } catch (SQLException e) {
+            if (migration.transactional()) {
+                conn.rollback();
+            }
+            throw new SQLException("Schema migration " + migration.version() + " failed: " + e.getMessage(), e.getSQLState(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        LOGGER.info("Schema migration " + migration.version() + " applied in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private static Migration sql(int version, String description, String... statements) {
+        return new Migration(version, description, String.join(";\n", statements), true, conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String statement : statements) {
+                    stmt.executeUpdate(statement);
+                }
+            }
+        });
+    }
+
+    // Each spec is "<index name> ON <table> (<columns>)". Built CONCURRENTLY so writes to the table continue;
+    // an index left invalid by an interrupted build is dropped and rebuilt.
+    private static Migration concurrentIndexes(int version, String description, String... specs) {
+        return new Migration(version, description, String.join(";\n", specs), false, conn -> {
+            for (String spec : specs) {
+                String name = spec.substring(0, spec.indexOf(' '));
+                try (PreparedStatement check = conn.prepareStatement("SELECT 1 FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ? AND NOT i.indisvalid")) {
+                    check.setString(1, name);
+                    if (check.executeQuery().next()) {
+                        try (Statement stmt = conn.createStatement()) {
+                            stmt.executeUpdate("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+                        }
+                    }
+                }
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + spec);
+                }
+            }
+        });
+    }
+
+    private static String demoDataDefinition() {
+        return String.join(";\n", INSERT_DEMO_USER, String.join("|", DEMO_USERS), INSERT_DEMO_COURSE, String.join("|", DEMO_COURSES),
+                INSERT_DEMO_ENROLLMENT, INSERT_DEMO_ASSIGNMENT);
+    }
+
+    private static void seedDemoData(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users");
+            rs.next();
+            if (rs.getInt(1) == 0) {
+                try (PreparedStatement insert = connection.prepareStatement(INSERT_DEMO_USER)) {
+                    for (String user : DEMO_USERS) {
+                        String[] parts = user.split(",");
+                        insert.setString(1, parts[0]);
+                        insert.setString(2, parts[1]);
+                        insert.setString(3, CredentialService.hash(parts[2]));
+                        insert.setString(4, parts[3]);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            }
+
+            rs = stmt.executeQuery("SELECT COUNT(*) FROM courses");
+            rs.next();
+            if (rs.getInt(1) == 0) {
+                try (PreparedStatement insert = connection.prepareStatement(INSERT_DEMO_COURSE)) {
+                    for (String course : DEMO_COURSES) {
+                        String[] parts = course.split(",");
+                        insert.setString(1, parts[0]);
+                        insert.setString(2, parts[1]);
+                        insert.setString(3, parts[2]);
+                        insert.setDouble(4, Double.parseDouble(parts[3]));
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            }
+
+            rs = stmt.executeQuery("SELECT COUNT(*) FROM enrollments");
+            rs.next();
+            if (rs.getInt(1) == 0) {
+                stmt.executeUpdate(INSERT_DEMO_ENROLLMENT);
+            }
+
+            rs = stmt.executeQuery("SELECT COUNT(*) FROM assignments");
+            rs.next();
+            if (rs.getInt(1) == 0) {
+                stmt.executeUpdate(INSERT_DEMO_ASSIGNMENT);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package test.lms;
+
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.layout.Region;
+import javafx.stage.Stage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+// Navigation for the primary stage. Every screen is a root swapped into one long-lived Scene, so the
+// stylesheet is attached and parsed once and no Scene is built per navigation. The most recently used
+// screens are kept, keyed by screen and parameters (e.g. "grade:12"); showing a cached one runs its
+// refresh to rebind current data into the existing nodes instead of rebuilding them. FX thread only.
+public class ScreenRouter {
+    private static final Logger LOGGER = Logger.getLogger(ScreenRouter.class.getName());
+    private static final int CACHED_SCREENS = Math.max(1, Settings.intSetting("SCREEN_CACHE_SIZE", 8));
+
+    // A screen's nodes plus what to run when it is shown again.
+    public record Screen(Parent root, Runnable refresh) {
+        public Screen(Parent root) {
+            this(root, () -> {});
+        }
+    }
+
+    private final Stage stage;
+    private final Map<String, Screen> screens = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Screen> eldest) {
+            return size() > CACHED_SCREENS;
+        }
+    };
+    private Scene scene;
+    private int builds;
+    private int reuses;
+
+    public ScreenRouter(Stage stage) {
+        this.stage = stage;
+    }
+
+    // width and height are the content size the window takes on when the screen is shown, as a Scene of
+    // that size used to. build creates the nodes and loads their first data.
+    public void show(String key, double width, double height, Supplier<Screen> build) {
+        Screen screen = screens.get(key);
+        if (screen == null) {
+            screen = build.get();
+            screens.put(key, screen);
+            builds++;
+        } else {
+            screen.refresh().run();
+            reuses++;
+        }
+        if (screen.root() instanceof Region region) {
+            region.setPrefSize(width, height);
+        }
+        if (scene == null) {
+            scene = new Scene(screen.root());
+            Theme.install(scene);
+            AnimationGovernor.watch(scene);
+            stage.setScene(scene);
+        } else if (scene.getRoot() != screen.root()) {
+            scene.setRoot(screen.root());
+        }
+        stage.sizeToScene();
+    }
+
+    // Drops a screen whose nodes should not outlive the data behind them; the next show builds it again.
+    public void evict(String key) {
+        screens.remove(key);
+    }
+
+    // On logout: everything cached belongs to the previous user.
+    public void clear() {
+        LOGGER.fine("Screen cache cleared after " + builds + " builds and " + reuses + " reuses");
+        screens.clear();
+    }
+}
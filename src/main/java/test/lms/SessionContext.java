@@ -0,0 +1,198 @@
+package test.lms;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import test.lms.LMSApplication.Assignment;
+import test.lms.LMSApplication.Course;
+import test.lms.LMSApplication.Submission;
+import test.lms.LMSApplication.User;
+
+// The logged-in user's working set: their courses, the course catalog, the assignments of their
+// courses and (for students) their own submissions. Everything is loaded in parallel right after login
+// and screens are answered from memory. The app's own writes invalidate exactly the parts they change;
+// changes made by other sessions show up after SESSION_CACHE_TTL_SECONDS or on the next login.
+public class SessionContext {
+    private static final long TTL_MILLIS = Settings.longSetting("SESSION_CACHE_TTL_SECONDS", 300) * 1000;
+
+    private final User profile;
+    private final Slot<List<Course>> courses;
+    private final Slot<List<Course>> catalog;
+    private final Slot<List<Assignment>> assignments;
+    private final Slot<List<Submission>> submissions;
+
+    public SessionContext(LmsDataService dataService, User profile) {
+        this.profile = profile;
+        String role = profile.getRole();
+        int userId = profile.getId();
+        this.courses = new Slot<>(() -> dataService.myCourses(role, userId));
+        this.catalog = new Slot<>(dataService::courseCatalog);
+        this.assignments = new Slot<>(() -> dataService.myAssignments(role, userId));
+        this.submissions = new Slot<>(() -> dataService.studentSubmissions(userId));
+    }
+
+    // Starts every load the user's role needs; each runs as its own background task.
+    public void preload() {
+        if (isStudent()) {
+            courses.get();
+            catalog.get();
+            assignments.get();
+            submissions.get();
+        } else if (profile.getRole().equals("instructor")) {
+            courses.get();
+            assignments.get();
+        }
+    }
+
+    public User profile() {
+        return profile;
+    }
+
+    public CompletableFuture<List<Course>> courses() {
+        return courses.get();
+    }
+
+    public CompletableFuture<List<Double>> progressValues() {
+        return courses.get().thenApply(list -> {
+            List<Double> values = new ArrayList<>();
+            for (int i = 0; i < Math.min(5, list.size()); i++) {
+                values.add(list.get(i).getProgress());
+            }
+            return values;
+        });
+    }
+
+    public CompletableFuture<LmsDataService.EnrollmentOptions> enrollmentOptions() {
+        return courses.get().thenCombine(catalog.get(), (enrolled, all) -> {
+            Set<Integer> enrolledIds = new HashSet<>();
+            for (Course course : enrolled) {
+                enrolledIds.add(course.getId());
+            }
+            List<Course> available = new ArrayList<>();
+            for (Course course : all) {
+                if (!enrolledIds.contains(course.getId())) {
+                    available.add(course);
+                }
+            }
+            return new LmsDataService.EnrollmentOptions(enrolled.size(), available);
+        });
+    }
+
+    // Assignments of enrolled courses that are still before their deadline and not yet submitted.
+    public CompletableFuture<List<LmsDataService.OpenAssignment>> openAssignments() {
+        CompletableFuture<Map<Integer, String>> courseNames = catalog.get().thenApply(all -> {
+            Map<Integer, String> names = new HashMap<>();
+            for (Course course : all) {
+                names.put(course.getId(), course.getName());
+            }
+            return names;
+        });
+        return assignments.get().thenCombine(submissions.get(), (list, submitted) -> {
+            Set<Integer> submittedIds = new HashSet<>();
+            for (Submission submission : submitted) {
+                submittedIds.add(submission.getAssignmentId());
+            }
+            List<Assignment> open = new ArrayList<>();
+            for (Assignment assignment : upcoming(list)) {
+                if (!submittedIds.contains(assignment.getId())) {
+                    open.add(assignment);
+                }
+            }
+            return open;
+        }).thenCombine(courseNames, (open, names) -> {
+            List<LmsDataService.OpenAssignment> result = new ArrayList<>();
+            for (Assignment assignment : open) {
+                result.add(new LmsDataService.OpenAssignment(assignment.getId(), assignment.getTitle(), assignment.getCourseId(), names.get(assignment.getCourseId())));
+            }
+            return result;
+        });
+    }
+
+    public CompletableFuture<List<Assignment>> upcomingDeadlines() {
+        return assignments.get().thenApply(SessionContext::upcoming);
+    }
+
+    public CompletableFuture<List<Assignment>> courseAssignments(int courseId) {
+        return assignments.get().thenApply(list -> {
+            List<Assignment> result = new ArrayList<>();
+            for (Assignment assignment : list) {
+                if (assignment.getCourseId() == courseId) {
+                    result.add(assignment);
+                }
+            }
+            return result;
+        });
+    }
+
+    public CompletableFuture<List<Submission>> submissions() {
+        return submissions.get();
+    }
+
+    // Invalidation hooks, called after the corresponding write has committed.
+
+    public void enrolled() {
+        courses.invalidate();
+        assignments.invalidate();
+    }
+
+    public void submitted() {
+        submissions.invalidate();
+    }
+
+    public void courseAdded() {
+        courses.invalidate();
+        catalog.invalidate();
+    }
+
+    public void assignmentAdded() {
+        assignments.invalidate();
+    }
+
+    private boolean isStudent() {
+        return profile.getRole().equals("student");
+    }
+
+    private static List<Assignment> upcoming(List<Assignment> list) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Assignment> result = new ArrayList<>();
+        for (Assignment assignment : list) {
+            if (assignment.getDeadline() != null && assignment.getDeadline().after(now)) {
+                result.add(assignment);
+            }
+        }
+        return result;
+    }
+
+    // One cached query result. A failed or expired load is retried on the next get(); invalidate()
+    // starts the reload right away so the next screen still finds it in memory.
+    private static final class Slot<T> {
+        private final Supplier<CompletableFuture<T>> loader;
+        private CompletableFuture<T> value;
+        private long loadedAt;
+
+        private Slot(Supplier<CompletableFuture<T>> loader) {
+            this.loader = loader;
+        }
+
+        private synchronized CompletableFuture<T> get() {
+            long now = System.currentTimeMillis();
+            if (value == null || value.isCompletedExceptionally() || (value.isDone() && now - loadedAt > TTL_MILLIS)) {
+                value = loader.get();
+                loadedAt = now;
+            }
+            return value;
+        }
+
+        private synchronized void invalidate() {
+            value = null;
+            get();
+        }
+    }
+}
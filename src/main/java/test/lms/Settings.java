@@ -0,0 +1,53 @@
+package test.lms;
+
+import java.util.logging.Logger;
+
+// Numeric settings from environment variables. These are read in static initialisers, where a parse error
+// would fail the class for good, so a value that does not parse is logged and the default used instead.
+final class Settings {
+    private static final Logger LOGGER = Logger.getLogger(Settings.class.getName());
+
+    private Settings() {
+    }
+
+    static int intSetting(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return invalid(name, value, defaultValue);
+        }
+    }
+
+    static long longSetting(String name, long defaultValue) {
+        String value = System.getenv(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return invalid(name, value, defaultValue);
+        }
+    }
+
+    static double doubleSetting(String name, double defaultValue) {
+        String value = System.getenv(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return invalid(name, value, defaultValue);
+        }
+    }
+
+    private static <T> T invalid(String name, String value, T defaultValue) {
+        LOGGER.warning("Ignoring invalid " + name + "=" + value + ", using " + defaultValue);
+        return defaultValue;
+    }
+}
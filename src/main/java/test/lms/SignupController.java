@@ -1,6 +1,5 @@
 package test.lms;
 
-import javafx.animation.FadeTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -10,8 +9,6 @@ import javafx.scene.paint.Color;
 import javafx.util.Duration;
 
 import java.net.URL;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.sql.*;
 import java.util.ResourceBundle;
 import java.util.regex.Pattern;
@@ -29,25 +26,19 @@ public class SignupController implements Initializable {
     @FXML private ProgressIndicator progressIndicator;
     @FXML private Button loginButton;
 
-    private Connection connection;
+    private final BackgroundExecutor.TaskGroup tasks = BackgroundExecutor.newGroup("signup");
     private static final String EMAIL_REGEX = "^[A-Za-z0-9+_.-]+@(.+)$";
     private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         setupAnimations();
-        setupDatabaseConnection();
         populateUserTypes();
         progressIndicator.setVisible(false);
     }
 
     private void setupAnimations() {
-        FadeTransition fadeTransition = new FadeTransition(Duration.seconds(2), registerButton);
-        fadeTransition.setFromValue(1.0);
-        fadeTransition.setToValue(0.7);
-        fadeTransition.setCycleCount(FadeTransition.INDEFINITE);
-        fadeTransition.setAutoReverse(true);
-        fadeTransition.play();
+        AnimationGovernor.pulse(registerButton, Duration.seconds(2), 1.0, 0.7);
 
         DropShadow shadow = new DropShadow();
         shadow.setColor(Color.web("#3299a8"));
@@ -60,20 +51,6 @@ public class SignupController implements Initializable {
         loginButton.setOnMouseExited(e -> loginButton.setEffect(null));
     }
 
-    private void setupDatabaseConnection() {
-        try {
-            Class.forName("org.postgresql.Driver");
-            connection = DriverManager.getConnection(
-                    "jdbc:postgresql://localhost:5432/lms",
-                    "postgres",
-                    "654321" // Change this to your actual password
-            );
-        } catch (Exception e) {
-            showError("Database connection failed: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
     private void populateUserTypes() {
         userTypeComboBox.getItems().addAll("Student", "Instructor", "Administrator");
         userTypeComboBox.getSelectionModel().selectFirst();
@@ -96,7 +73,7 @@ public class SignupController implements Initializable {
         progressIndicator.setVisible(true);
         registerButton.setDisable(true);
 
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 if (isEmailTaken(emailField.getText())) {
                     Platform.runLater(() -> {
@@ -111,7 +88,7 @@ public class SignupController implements Initializable {
                         firstNameField.getText(),
                         lastNameField.getText(),
                         emailField.getText(),
-                        hashPassword(passwordField.getText()),
+                        CredentialService.sha256Hex(passwordField.getText()),
                         userTypeComboBox.getValue()
                 );
 
@@ -129,7 +106,7 @@ public class SignupController implements Initializable {
                 });
                 e.printStackTrace();
             }
-        }).start();
+        });
     }
 
     private boolean validateInput() {
@@ -158,7 +135,8 @@ public class SignupController implements Initializable {
 
     private boolean isEmailTaken(String email) throws SQLException {
         String query = "SELECT COUNT(*) FROM users WHERE email = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, email);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
@@ -171,7 +149,8 @@ public class SignupController implements Initializable {
     private void registerUser(String firstName, String lastName, String email, String passwordHash, String userType) throws SQLException {
         String sql = "INSERT INTO users (first_name, last_name, email, password_hash, user_type, created_at) " +
                 "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, firstName);
             stmt.setString(2, lastName);
             stmt.setString(3, email);
@@ -181,18 +160,6 @@ public class SignupController implements Initializable {
         }
     }
 
-    private String hashPassword(String password) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashed = md.digest(password.getBytes());
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashed) sb.append(String.format("%02x", b));
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Hashing error", e);
-        }
-    }
-
     private void clearForm() {
         firstNameField.clear();
         lastNameField.clear();
@@ -0,0 +1,232 @@
+package test.lms;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// LRU cache of prepared statements for one physical connection, keyed by SQL text.
+// Callers still close their statements; close() only returns the statement to the cache.
+class StatementCache {
+    // Statement-level settings a borrower may change; the next borrower gets the driver defaults back.
+    private static final Set<String> SETTINGS = Set.of("setFetchSize", "setFetchDirection", "setMaxRows",
+            "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout", "setEscapeProcessing");
+
+    // Shared by the caches of one pool's connections, so each pool reports only its own.
+    static final class Counters {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+
+        long hits() {
+            return hits.get();
+        }
+
+        long misses() {
+            return misses.get();
+        }
+
+        long evictions() {
+            return evictions.get();
+        }
+    }
+
+    private final Connection physical;
+    private final Counters counters;
+    private final Map<String, CachedStatement> statements;
+
+    StatementCache(Connection physical, int capacity, Counters counters) {
+        this.physical = physical;
+        this.counters = counters;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                counters.evictions.incrementAndGet();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    synchronized PreparedStatement prepare(Connection owner, String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && cached.handle == null) {
+            counters.hits.incrementAndGet();
+            return cached.checkOut(owner);
+        }
+        counters.misses.incrementAndGet();
+        PreparedStatement statement = physical.prepareStatement(sql);
+        if (cached != null) {
+            // The same SQL is already checked out on this connection (nested use); don't cache the second copy.
+            return statement;
+        }
+        try {
+            cached = new CachedStatement(statement);
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        statements.put(sql, cached);
+        return cached.checkOut(owner);
+    }
+
+    // Called when the owning connection goes back to the pool: reclaim anything the borrower forgot to close.
+    synchronized void reset() {
+        for (CachedStatement cached : statements.values()) {
+            cached.checkIn();
+        }
+    }
+
+    synchronized void close() {
+        List<CachedStatement> all = new ArrayList<>(statements.values());
+        statements.clear();
+        all.forEach(CachedStatement::evict);
+    }
+
+    private final class CachedStatement {
+        private final PreparedStatement statement;
+        private final int defaultFetchSize;
+        private final int defaultFetchDirection;
+        private final int defaultMaxRows;
+        private final int defaultMaxFieldSize;
+        private final int defaultQueryTimeout;
+        private Handle handle;
+        private boolean evicted;
+        private boolean settingsChanged;
+
+        private CachedStatement(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultFetchDirection = statement.getFetchDirection();
+            this.defaultMaxRows = statement.getMaxRows();
+            this.defaultMaxFieldSize = statement.getMaxFieldSize();
+            this.defaultQueryTimeout = statement.getQueryTimeout();
+        }
+
+        private PreparedStatement checkOut(Connection owner) {
+            handle = new Handle(this, owner);
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, handle);
+        }
+
+        private void checkIn() {
+            if (handle == null) {
+                return;
+            }
+            handle.closed = true;
+            handle.closeResult();
+            handle = null;
+            if (evicted) {
+                closePhysical();
+                return;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                if (settingsChanged) {
+                    restoreSettings();
+                }
+            } catch (SQLException e) {
+                evicted = true;
+                closePhysical();
+            }
+        }
+
+        private void restoreSettings() throws SQLException {
+            statement.setFetchSize(defaultFetchSize);
+            statement.setFetchDirection(defaultFetchDirection);
+            statement.setMaxRows(defaultMaxRows); // also clears a large max rows
+            statement.setMaxFieldSize(defaultMaxFieldSize);
+            statement.setQueryTimeout(defaultQueryTimeout);
+            statement.setEscapeProcessing(true);
+            settingsChanged = false;
+        }
+
+        private void evict() {
+            evicted = true;
+            if (handle == null) {
+                closePhysical();
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private ResultSet lastResult;
+        private boolean closed;
+
+        private Handle(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        private void closeResult() {
+            if (lastResult != null) {
+                try {
+                    lastResult.close();
+                } catch (SQLException ignored) {
+                }
+                lastResult = null;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (StatementCache.this) {
+                        if (!closed && cached.handle == this) {
+                            cached.checkIn();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            if (SETTINGS.contains(method.getName())) {
+                cached.settingsChanged = true;
+            }
+            try {
+                Object result = method.invoke(cached.statement, args);
+                if (result instanceof ResultSet rs) {
+                    lastResult = rs;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
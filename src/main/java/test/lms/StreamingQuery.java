@@ -0,0 +1,84 @@
+package test.lms;
+
+import javafx.application.Platform;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+// Reads large result sets through a server-side cursor and hands rows to the FX thread in batches.
+// The PostgreSQL driver only uses a cursor when autocommit is off and a fetch size is set; otherwise
+// it buffers the whole result before the first row is returned.
+// This bounds what the read itself holds (a fetch plus the batches in flight), not what the caller keeps:
+// a caller that adds every batch to a list holds every row, so it must pass a maxRows it can afford.
+public final class StreamingQuery {
+    private static final int FETCH_SIZE = Math.max(1, Settings.intSetting("DB_FETCH_SIZE", 500));
+    // Batches handed to the FX thread but not yet applied; the reader blocks beyond this.
+    private static final int MAX_PENDING_BATCHES = 2;
+
+    // truncated: the query had rows beyond maxRows, which were not read
+    public record Streamed(long rows, boolean truncated) {
+    }
+
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private StreamingQuery() {
+    }
+
+    // Blocking; call from a background task. Interrupting the thread stops the read after the current batch.
+    // Delivers at most maxRows rows.
+    public static <T> Streamed streamToFx(String sql, int maxRows, RowMapper<T> mapper, Consumer<List<T>> onBatch) throws SQLException, InterruptedException {
+        Semaphore pending = new Semaphore(MAX_PENDING_BATCHES);
+        long rows = 0;
+        boolean truncated = false;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            ConnectionPool.expectLongHold(conn);
+            conn.setAutoCommit(false); // the pool rolls back and restores autocommit on release
+            try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(FETCH_SIZE);
+                stmt.setMaxRows(maxRows < Integer.MAX_VALUE ? maxRows + 1 : 0); // one extra row tells whether there were more
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    List<T> batch = new ArrayList<>(FETCH_SIZE);
+                    while (rs.next()) {
+                        if (rows + batch.size() == maxRows) {
+                            truncated = true;
+                            break;
+                        }
+                        batch.add(mapper.map(rs));
+                        if (batch.size() == FETCH_SIZE) {
+                            deliver(batch, pending, onBatch);
+                            rows += batch.size();
+                            batch = new ArrayList<>(FETCH_SIZE);
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        deliver(batch, pending, onBatch);
+                        rows += batch.size();
+                    }
+                }
+            }
+        }
+        return new Streamed(rows, truncated);
+    }
+
+    private static <T> void deliver(List<T> batch, Semaphore pending, Consumer<List<T>> onBatch) throws InterruptedException {
+        pending.acquire();
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException("Streaming query cancelled");
+        }
+        Platform.runLater(() -> {
+            try {
+                onBatch.accept(batch);
+            } finally {
+                pending.release();
+            }
+        });
+    }
+}
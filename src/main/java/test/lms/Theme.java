@@ -0,0 +1,75 @@
+package test.lms;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
+import javafx.css.PseudoClass;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+
+import java.net.URL;
+import java.util.logging.Logger;
+
+// Light/dark theming as a single :dark pseudo-class on each scene root; styles.css does the rest.
+// Switching flips one flag per open scene, so nothing is rebuilt, re-walked or reloaded.
+public final class Theme {
+    private static final Logger LOGGER = Logger.getLogger(Theme.class.getName());
+    private static final PseudoClass DARK = PseudoClass.getPseudoClass("dark");
+    private static final String STYLESHEET = resolveStylesheet();
+    private static final BooleanProperty dark = new SimpleBooleanProperty(false);
+
+    private Theme() {
+    }
+
+    public static void install(Scene scene) {
+        if (STYLESHEET != null && !scene.getStylesheets().contains(STYLESHEET)) {
+            scene.getStylesheets().add(STYLESHEET);
+        }
+        if (scene.getProperties().containsKey(Theme.class)) {
+            return;
+        }
+        apply(scene.getRoot(), isDark());
+        ChangeListener<Boolean> themeListener = (obs, wasDark, nowDark) -> apply(scene.getRoot(), nowDark);
+        ChangeListener<Parent> rootListener = (obs, oldRoot, newRoot) -> {
+            apply(oldRoot, false);
+            apply(newRoot, isDark());
+        };
+        // The scene holds the listeners, so the weak registration lives exactly as long as the scene
+        scene.getProperties().put(Theme.class, new Object[] {themeListener, rootListener});
+        dark.addListener(new WeakChangeListener<>(themeListener));
+        scene.rootProperty().addListener(rootListener);
+    }
+
+    public static boolean isDark() {
+        return dark.get();
+    }
+
+    public static void setDark(boolean value) {
+        dark.set(value);
+    }
+
+    public static void toggle() {
+        dark.set(!dark.get());
+    }
+
+    public static ReadOnlyBooleanProperty darkProperty() {
+        return dark;
+    }
+
+    private static void apply(Parent root, boolean value) {
+        if (root != null) {
+            root.pseudoClassStateChanged(DARK, value);
+        }
+    }
+
+    private static String resolveStylesheet() {
+        URL stylesheet = Theme.class.getResource("/test/lms/styles.css");
+        if (stylesheet == null) {
+            LOGGER.warning("styles.css not found at /test/lms/styles.css");
+            return null;
+        }
+        return stylesheet.toExternalForm();
+    }
+}
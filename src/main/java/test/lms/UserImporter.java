@@ -0,0 +1,250 @@
+package test.lms;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+// Bulk user import for the LMSApplication schema. Reads a CSV of username,email,password,role in chunks,
+// hashes each chunk's passwords on the credential import pool while the previous chunk is loaded, and loads
+// through COPY into a staging table so that existing usernames become rejects instead of failing the chunk.
+public class UserImporter {
+    private static final Logger LOGGER = Logger.getLogger(UserImporter.class.getName());
+    private static final int CHUNK_SIZE = Math.max(1, Settings.intSetting("IMPORT_CHUNK_SIZE", 2000));
+    private static final int MAX_REPORTED_REJECTS = 1000;
+    private static final Set<String> ROLES = Set.of("admin", "instructor", "student");
+    private static final String EMAIL_REGEX = "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$";
+
+    public record Progress(long read, long imported, long rejected) {
+    }
+
+    public record Reject(long line, String reason) {
+    }
+
+    public record Result(long imported, long rejected, List<Reject> rejects, long millis) {
+    }
+
+    private static final class Row {
+        private final long line;
+        private final String username;
+        private final String email;
+        private final String password;
+        private final String role;
+        private String passwordHash;
+
+        private Row(long line, String username, String email, String password, String role) {
+            this.line = line;
+            this.username = username;
+            this.email = email;
+            this.password = password;
+            this.role = role;
+        }
+    }
+
+    private final ConnectionPool pool;
+
+    public UserImporter(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    // Blocking; call from a background task. progress is called from that task's thread after every chunk.
+    public Result importCsv(Path file, Consumer<Progress> progress) throws IOException, SQLException, InterruptedException {
+        long start = System.nanoTime();
+        List<Reject> rejects = new ArrayList<>();
+        long[] counts = new long[3]; // read, imported, rejected
+        Set<String> seen = new HashSet<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             Connection conn = pool.getConnection()) {
+            ConnectionPool.expectLongHold(conn);
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("CREATE TEMP TABLE IF NOT EXISTS import_users (line BIGINT, username VARCHAR(50), email VARCHAR(100), password_hash VARCHAR(60), role VARCHAR(20)) ON COMMIT DELETE ROWS");
+            }
+            conn.commit();
+            CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+
+            List<Row> chunk = readChunk(reader, counts, seen, rejects);
+            ForkJoinTask<List<String>> hashing = hash(chunk);
+            while (!chunk.isEmpty()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    hashing.cancel(true);
+                    throw new InterruptedException("Import cancelled after " + counts[1] + " users");
+                }
+                List<Row> hashed = join(chunk, hashing);
+                // Parse and hash the next chunk while this one is copied
+                chunk = readChunk(reader, counts, seen, rejects);
+                hashing = hash(chunk);
+                load(conn, copy, hashed, counts, rejects);
+                progress.accept(new Progress(counts[0], counts[1], counts[2]));
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DROP TABLE IF EXISTS import_users");
+            }
+            conn.commit();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info(String.format("Imported %d users from %s in %d ms (%d rejected)", counts[1], file.getFileName(), millis, counts[2]));
+        return new Result(counts[1], counts[2], rejects, millis);
+    }
+
+    private List<Row> readChunk(BufferedReader reader, long[] counts, Set<String> seen, List<Reject> rejects) throws IOException {
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        String line;
+        while (chunk.size() < CHUNK_SIZE && (line = reader.readLine()) != null) {
+            long lineNumber = ++counts[0];
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = parseCsvLine(line);
+            if (lineNumber == 1 && fields.size() > 0 && fields.get(0).trim().equalsIgnoreCase("username")) {
+                continue; // header
+            }
+            String reason = null;
+            if (fields.size() != 4) {
+                reason = "expected 4 columns, found " + fields.size();
+            } else {
+                String username = fields.get(0).trim();
+                String email = fields.get(1).trim();
+                String role = fields.get(3).trim().toLowerCase(Locale.ROOT);
+                if (username.isEmpty() || username.length() > 50) {
+                    reason = "invalid username";
+                } else if (!email.matches(EMAIL_REGEX) || email.length() > 100) {
+                    reason = "invalid email";
+                } else if (fields.get(2).isEmpty()) {
+                    reason = "empty password";
+                } else if (!ROLES.contains(role)) {
+                    reason = "invalid role '" + role + "'";
+                } else if (!seen.add(username)) {
+                    reason = "duplicate username '" + username + "' in file";
+                } else {
+                    chunk.add(new Row(lineNumber, username, email, fields.get(2), role));
+                }
+            }
+            if (reason != null) {
+                reject(counts, rejects, lineNumber, reason);
+            }
+        }
+        return chunk;
+    }
+
+    private static ForkJoinTask<List<String>> hash(List<Row> chunk) {
+        List<String> passwords = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            passwords.add(row.password);
+        }
+        return CredentialService.hashAll(passwords);
+    }
+
+    private static List<Row> join(List<Row> chunk, ForkJoinTask<List<String>> hashing) throws InterruptedException {
+        try {
+            List<String> hashes = hashing.get();
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.get(i).passwordHash = hashes.get(i);
+            }
+            return chunk;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void load(Connection conn, CopyManager copy, List<Row> rows, long[] counts, List<Reject> rejects) throws SQLException, IOException {
+        StringBuilder csv = new StringBuilder(rows.size() * 120);
+        for (Row row : rows) {
+            csv.append(row.line).append(',');
+            appendCsv(csv, row.username).append(',');
+            appendCsv(csv, row.email).append(',');
+            appendCsv(csv, row.passwordHash).append(',');
+            appendCsv(csv, row.role).append('\n');
+        }
+        try {
+            copy.copyIn("COPY import_users (line, username, email, password_hash, role) FROM STDIN WITH (FORMAT csv)", new StringReader(csv.toString()));
+            // What was actually inserted decides: a username that exists, including one another session
+            // inserted moments ago, is skipped by ON CONFLICT and so missing from what comes back.
+            Set<String> inserted = new HashSet<>(rows.size() * 2);
+            try (PreparedStatement insert = conn.prepareStatement("INSERT INTO users (username, email, password_hash, role) SELECT username, email, password_hash, role FROM import_users ORDER BY line ON CONFLICT (username) DO NOTHING RETURNING username");
+                 ResultSet rs = insert.executeQuery()) {
+                while (rs.next()) {
+                    inserted.add(rs.getString(1));
+                }
+            }
+            conn.commit();
+            counts[1] += inserted.size();
+            for (Row row : rows) {
+                if (!inserted.contains(row.username)) {
+                    reject(counts, rejects, row.line, "username '" + row.username + "' already exists");
+                }
+            }
+        } catch (SQLException | IOException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    private static void reject(long[] counts, List<Reject> rejects, long line, String reason) {
+        counts[2]++;
+        if (rejects.size() < MAX_REPORTED_REJECTS) {
+            rejects.add(new Reject(line, reason));
+        }
+    }
+
+    private static StringBuilder appendCsv(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
+    // Comma-separated fields; double quotes may wrap a field and "" inside quotes is a literal quote.
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}